@@ -0,0 +1,92 @@
+package com.messenger.chat.loadtest;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cria as tabelas usadas pelo chat-service no DynamoDB local e popula a rede de contatos do teste.
+ * Os nomes das tabelas seguem {@code --tabela-contatos}/{@code --tabela-mensagens}, que devem
+ * coincidir com {@code chat.storage.dynamodb.*} do serviço.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class DynamoDbSeeder {
+
+    private static final int TAMANHO_LOTE = 25;
+
+    private final DynamoDbClient dynamoDb;
+    private final LoadTestConfig config;
+
+    public void preparar() {
+        criarTabelaSeNecessario(config.tabelaContatos(), "usuario_email", "contato_email");
+        criarTabelaSeNecessario(config.tabelaMensagens(), "destinatario_email", "timestamp");
+        popularContatos();
+    }
+
+    private void criarTabelaSeNecessario(String tabela, String hashKey, String rangeKey) {
+        if (dynamoDb.listTables().tableNames().contains(tabela)) {
+            return;
+        }
+
+        dynamoDb.createTable(CreateTableRequest.builder()
+                .tableName(tabela)
+                .billingMode(BillingMode.PAY_PER_REQUEST)
+                .attributeDefinitions(
+                        AttributeDefinition.builder().attributeName(hashKey).attributeType(ScalarAttributeType.S).build(),
+                        AttributeDefinition.builder().attributeName(rangeKey).attributeType(ScalarAttributeType.S).build())
+                .keySchema(
+                        KeySchemaElement.builder().attributeName(hashKey).keyType(KeyType.HASH).build(),
+                        KeySchemaElement.builder().attributeName(rangeKey).keyType(KeyType.RANGE).build())
+                .build());
+
+        dynamoDb.waiter().waitUntilTableExists(r -> r.tableName(tabela));
+        log.info("Tabela {} criada", tabela);
+    }
+
+    private void popularContatos() {
+        int usuarios = config.usuarios();
+        List<WriteRequest> lote = new ArrayList<>(TAMANHO_LOTE);
+        long total = 0;
+
+        for (int i = 0; i < usuarios; i++) {
+            for (String contato : config.contatosDe(i)) {
+                lote.add(WriteRequest.builder()
+                        .putRequest(PutRequest.builder().item(Map.of(
+                                "usuario_email", AttributeValue.fromS(config.emailDoUsuario(i)),
+                                "contato_email", AttributeValue.fromS(contato),
+                                "aceito", AttributeValue.fromBool(true),
+                                "bloqueado", AttributeValue.fromBool(false)
+                        )).build())
+                        .build());
+
+                if (lote.size() == TAMANHO_LOTE) {
+                    gravar(lote);
+                    total += lote.size();
+                    lote.clear();
+                }
+            }
+        }
+
+        if (!lote.isEmpty()) {
+            gravar(lote);
+            total += lote.size();
+        }
+        log.info("{} relações de contato gravadas para {} usuários", total, usuarios);
+    }
+
+    private void gravar(List<WriteRequest> lote) {
+        Map<String, List<WriteRequest>> pendentes = Map.of(config.tabelaContatos(), List.copyOf(lote));
+        while (!pendentes.isEmpty()) {
+            BatchWriteItemResponse response = dynamoDb.batchWriteItem(BatchWriteItemRequest.builder()
+                    .requestItems(pendentes)
+                    .build());
+            pendentes = response.unprocessedItems();
+        }
+    }
+}
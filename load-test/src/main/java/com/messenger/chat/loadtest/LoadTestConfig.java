@@ -0,0 +1,88 @@
+package com.messenger.chat.loadtest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parâmetros do teste de carga. Cada valor pode ser informado como argumento {@code --chave=valor}
+ * ou como system property {@code -Dloadtest.chave=valor}.
+ */
+public record LoadTestConfig(
+        String url,
+        String storage,
+        String adminUrl,
+        String dynamoEndpoint,
+        String tabelaContatos,
+        String tabelaMensagens,
+        int usuarios,
+        int contatosPorUsuario,
+        double mensagensPorSegundo,
+        double probabilidadeReconexao,
+        double fracaoReconexaoCompleta,
+        Duration rampa,
+        Duration duracao,
+        Duration aquecimento,
+        Duration drenagem,
+        boolean popularContatos,
+        double maxP99Millis,
+        double maxTaxaErro,
+        double maxTaxaPerda
+) {
+
+    public static LoadTestConfig from(String[] args) {
+        Map<String, String> valores = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                int idx = arg.indexOf('=');
+                valores.put(arg.substring(2, idx), arg.substring(idx + 1));
+            }
+        }
+
+        return new LoadTestConfig(
+                valor(valores, "url", "ws://localhost:8080/chat"),
+                valor(valores, "storage", "dynamodb"),
+                valor(valores, "admin-url", "http://localhost:8080"),
+                valor(valores, "dynamo-endpoint", "http://127.0.0.1:4566"),
+                valor(valores, "tabela-contatos", "contatos"),
+                valor(valores, "tabela-mensagens", "mensagens_pendentes"),
+                Integer.parseInt(valor(valores, "usuarios", "1000")),
+                Integer.parseInt(valor(valores, "contatos", "4")),
+                Double.parseDouble(valor(valores, "mensagens-por-segundo", "0.5")),
+                Double.parseDouble(valor(valores, "reconexao", "0.01")),
+                Double.parseDouble(valor(valores, "reconexao-completa", "0.5")),
+                Duration.ofSeconds(Long.parseLong(valor(valores, "rampa", "10"))),
+                Duration.ofSeconds(Long.parseLong(valor(valores, "duracao", "60"))),
+                Duration.ofSeconds(Long.parseLong(valor(valores, "aquecimento", "5"))),
+                Duration.ofSeconds(Long.parseLong(valor(valores, "drenagem", "5"))),
+                Boolean.parseBoolean(valor(valores, "popular-contatos", "true")),
+                Double.parseDouble(valor(valores, "max-p99-ms", "0")),
+                Double.parseDouble(valor(valores, "max-taxa-erro", "0.01")),
+                Double.parseDouble(valor(valores, "max-taxa-perda", "0.001"))
+        );
+    }
+
+    private static String valor(Map<String, String> valores, String chave, String padrao) {
+        return valores.getOrDefault(chave, System.getProperty("loadtest." + chave, padrao));
+    }
+
+    public String emailDoUsuario(int indice) {
+        return "user-" + indice + "@loadtest.local";
+    }
+
+    /**
+     * Contatos do usuário {@code i}: os usuários {@code i±1 .. i±k} (módulo o total), de forma que todas
+     * as relações são recíprocas.
+     */
+    public List<String> contatosDe(int indice) {
+        int k = Math.min(contatosPorUsuario, (usuarios - 1) / 2);
+        List<String> contatos = new ArrayList<>(2 * k);
+        for (int d = 1; d <= k; d++) {
+            contatos.add(emailDoUsuario(Math.floorMod(indice + d, usuarios)));
+            contatos.add(emailDoUsuario(Math.floorMod(indice - d, usuarios)));
+        }
+        return contatos;
+    }
+}
@@ -0,0 +1,178 @@
+package com.messenger.chat.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores e histogramas de latência fim a fim (em microssegundos) do teste de carga.
+ * Nada é registrado antes de {@link #iniciarMedicao()}, para descartar a rampa e o aquecimento; mensagens
+ * enviadas antes disso também não contam como recebidas, para que enviadas e entregues sejam comparáveis.
+ * <p>
+ * Mensagens enviadas enquanto o destinatário estava desconectado (reentregues pela fila offline ou pelo
+ * buffer de retomada) vão para um histograma separado: o tempo de desconexão não entra nos percentis
+ * usados como gate.
+ */
+@Slf4j
+public class LoadTestMetrics {
+
+    private static final long LATENCIA_MAXIMA_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private final Histogram latencia = new ConcurrentHistogram(LATENCIA_MAXIMA_MICROS, 3);
+    private final Histogram latenciaReentrega = new ConcurrentHistogram(LATENCIA_MAXIMA_MICROS, 3);
+
+    private final LongAdder enviadas = new LongAdder();
+    private final LongAdder recebidas = new LongAdder();
+    private final LongAdder reentregues = new LongAdder();
+    private final LongAdder presencas = new LongAdder();
+    private final LongAdder negadas = new LongAdder();
+    private final LongAdder conexoes = new LongAdder();
+    private final LongAdder retomadas = new LongAdder();
+    private final LongAdder reconexoesCompletas = new LongAdder();
+    private final LongAdder erros = new LongAdder();
+
+    private volatile boolean medindo;
+    private volatile long inicioMedicao;
+    private volatile long fimEnvio;
+
+    public void iniciarMedicao() {
+        inicioMedicao = System.nanoTime();
+        medindo = true;
+        log.info("⏱️ Aquecimento concluído, iniciando medição");
+    }
+
+    /**
+     * Marca o fim dos envios. As entregas continuam sendo contadas durante a drenagem, mas as taxas por
+     * segundo consideram só o período de envio.
+     */
+    public void encerrarEnvio() {
+        fimEnvio = System.nanoTime();
+    }
+
+    public void enviada(long enviadaEmNanos) {
+        if (medindo(enviadaEmNanos)) enviadas.increment();
+    }
+
+    public void recebida(long enviadaEmNanos) {
+        if (!medindo(enviadaEmNanos)) return;
+        recebidas.increment();
+        registrar(latencia, enviadaEmNanos);
+    }
+
+    public void reentregue(long enviadaEmNanos) {
+        if (!medindo(enviadaEmNanos)) return;
+        reentregues.increment();
+        registrar(latenciaReentrega, enviadaEmNanos);
+    }
+
+    private boolean medindo(long enviadaEmNanos) {
+        return medindo && enviadaEmNanos - inicioMedicao >= 0;
+    }
+
+    private static void registrar(Histogram histograma, long enviadaEmNanos) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - enviadaEmNanos);
+        histograma.recordValue(Math.min(Math.max(micros, 0), LATENCIA_MAXIMA_MICROS));
+    }
+
+    public void presenca() {
+        if (medindo) presencas.increment();
+    }
+
+    public void negada() {
+        if (medindo) negadas.increment();
+    }
+
+    public void conexao() {
+        conexoes.increment();
+    }
+
+    public void reconexao(boolean completa) {
+        if (!medindo) return;
+        (completa ? reconexoesCompletas : retomadas).increment();
+    }
+
+    public void erro() {
+        if (medindo) erros.increment();
+    }
+
+    public Resultado resultado() {
+        long fim = fimEnvio != 0 ? fimEnvio : System.nanoTime();
+        double segundos = Math.max(1, Duration.ofNanos(fim - inicioMedicao).toMillis()) / 1000.0;
+        return new Resultado(
+                conexoes.sum(),
+                enviadas.sum(),
+                recebidas.sum(),
+                reentregues.sum(),
+                presencas.sum(),
+                negadas.sum(),
+                retomadas.sum(),
+                reconexoesCompletas.sum(),
+                erros.sum(),
+                enviadas.sum() / segundos,
+                recebidas.sum() / segundos,
+                latencia.getValueAtPercentile(50) / 1000.0,
+                latencia.getValueAtPercentile(99) / 1000.0,
+                latencia.getValueAtPercentile(99.9) / 1000.0,
+                latencia.getMaxValue() / 1000.0,
+                latenciaReentrega.getValueAtPercentile(50) / 1000.0,
+                latenciaReentrega.getValueAtPercentile(99) / 1000.0
+        );
+    }
+
+    public record Resultado(
+            long conexoes,
+            long enviadas,
+            long recebidas,
+            long reentregues,
+            long presencas,
+            long negadas,
+            long retomadas,
+            long reconexoesCompletas,
+            long erros,
+            double enviadasPorSegundo,
+            double recebidasPorSegundo,
+            double p50Millis,
+            double p99Millis,
+            double p999Millis,
+            double maxMillis,
+            double reentregaP50Millis,
+            double reentregaP99Millis
+    ) {
+
+        public double taxaErro() {
+            return (double) (erros + negadas) / Math.max(1, enviadas);
+        }
+
+        /**
+         * Mensagens aceitas pelo servidor que não chegaram ao destinatário, nem ao vivo nem por reentrega.
+         * A comparação é por contagem, então uma entrega duplicada pode esconder uma perda.
+         */
+        public long perdidas() {
+            return Math.max(0, enviadas - negadas - recebidas - reentregues);
+        }
+
+        public double taxaPerda() {
+            return (double) perdidas() / Math.max(1, enviadas - negadas);
+        }
+
+        public void imprimir() {
+            log.info("================ Resultado do teste de carga ================");
+            log.info("Conexões abertas: {} | Reconexões com retomada: {} | Reconexões completas: {}",
+                    conexoes, retomadas, reconexoesCompletas);
+            log.info("Mensagens enviadas: {} ({} msg/s)", enviadas, String.format("%.1f", enviadasPorSegundo));
+            log.info("Mensagens recebidas: {} ({} msg/s)", recebidas, String.format("%.1f", recebidasPorSegundo));
+            log.info("Mensagens reentregues após reconexão: {} (p50={} ms, p99={} ms, fora do gate)", reentregues,
+                    String.format("%.2f", reentregaP50Millis), String.format("%.2f", reentregaP99Millis));
+            log.info("Notificações de presença recebidas: {}", presencas);
+            log.info("Mensagens negadas: {} | Erros: {} | Taxa de erro: {}", negadas, erros, String.format("%.4f", taxaErro()));
+            log.info("Mensagens perdidas: {} | Taxa de perda: {}", perdidas(), String.format("%.4f", taxaPerda()));
+            log.info("Latência fim a fim com destinatário conectado (ms): p50={} p99={} p999={} max={}",
+                    String.format("%.2f", p50Millis), String.format("%.2f", p99Millis),
+                    String.format("%.2f", p999Millis), String.format("%.2f", maxMillis));
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.messenger.chat.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Gerador de carga para o endpoint {@code /chat}.
+ * <p>
+ * Pré-requisitos: Redis e DynamoDB locais ({@code docker compose up}) e o chat-service rodando.
+ * Com {@code --storage=memory} o DynamoDB não é necessário: os contatos são carregados no serviço via
+ * {@code POST /admin/contatos}, que só existe com o endpoint de carga habilitado.
+ * Exemplo:
+ * <pre>
+ * mvn -f load-test/pom.xml compile exec:java -Dexec.args="--usuarios=5000 --duracao=120 --max-p99-ms=250"
+ *
+ * mvn spring-boot:run -Dspring-boot.run.arguments="--chat.storage.engine=memory --chat.storage.memory.seed-endpoint=true"
+ * mvn -f load-test/pom.xml compile exec:java -Dexec.args="--storage=memory --usuarios=5000"
+ * </pre>
+ * Ao fim dos envios os clientes continuam conectados durante {@code --drenagem} segundos, para que as
+ * mensagens em trânsito e as reentregas cheguem antes da contagem. O processo termina com código 1 se o
+ * p99, a taxa de erro ou a taxa de perda excederem os limites configurados, permitindo usar o teste como
+ * gate de release.
+ */
+@Slf4j
+public class LoadTestRunner {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.from(args);
+        log.info("🚀 Iniciando teste de carga: {}", config);
+
+        if (config.popularContatos()) {
+            popularContatos(config);
+        }
+
+        LoadTestMetrics metrics = new LoadTestMetrics();
+        TokenFactory tokenFactory = new TokenFactory();
+        HttpClient httpClient = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+        List<SimulatedClient> clientes = criarClientes(config, tokenFactory, httpClient, metrics);
+
+        Instant inicio = Instant.now();
+        Instant fim = inicio.plus(config.rampa()).plus(config.duracao());
+        Instant fimDrenagem = fim.plus(config.drenagem());
+        long intervaloRampaNanos = config.rampa().toNanos() / Math.max(1, clientes.size());
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            executor.submit(() -> {
+                Thread.sleep(config.rampa().plus(config.aquecimento()));
+                metrics.iniciarMedicao();
+                aguardarAte(fim);
+                metrics.encerrarEnvio();
+                return null;
+            });
+
+            for (int i = 0; i < clientes.size(); i++) {
+                SimulatedClient cliente = clientes.get(i);
+                Duration atraso = Duration.ofNanos(intervaloRampaNanos * i);
+                executor.submit(() -> {
+                    try {
+                        Thread.sleep(atraso);
+                        cliente.conectar();
+                        cliente.executar(fim);
+                        aguardarAte(fimDrenagem);
+                    } catch (Exception e) {
+                        metrics.erro();
+                        log.warn("Cliente encerrado com erro: {}", e.getMessage());
+                    } finally {
+                        try {
+                            cliente.fechar();
+                        } catch (Exception ignored) {
+                            // conexão já encerrada
+                        }
+                    }
+                });
+            }
+        }
+
+        LoadTestMetrics.Resultado resultado = metrics.resultado();
+        resultado.imprimir();
+
+        boolean reprovado = false;
+        if (config.maxP99Millis() > 0 && resultado.p99Millis() > config.maxP99Millis()) {
+            log.error("❌ p99 de {} ms acima do limite de {} ms", resultado.p99Millis(), config.maxP99Millis());
+            reprovado = true;
+        }
+        if (resultado.taxaErro() > config.maxTaxaErro()) {
+            log.error("❌ Taxa de erro {} acima do limite {}", resultado.taxaErro(), config.maxTaxaErro());
+            reprovado = true;
+        }
+        if (resultado.taxaPerda() > config.maxTaxaPerda()) {
+            log.error("❌ {} mensagens perdidas, taxa {} acima do limite {}", resultado.perdidas(),
+                    resultado.taxaPerda(), config.maxTaxaPerda());
+            reprovado = true;
+        }
+        System.exit(reprovado ? 1 : 0);
+    }
+
+    private static void aguardarAte(Instant instante) throws InterruptedException {
+        Duration restante = Duration.between(Instant.now(), instante);
+        if (!restante.isNegative()) {
+            Thread.sleep(restante);
+        }
+    }
+
+    private static void popularContatos(LoadTestConfig config) throws Exception {
+        switch (config.storage()) {
+            case "dynamodb" -> {
+                try (DynamoDbClient dynamoDb = DynamoDbClient.builder()
+                        .endpointOverride(URI.create(config.dynamoEndpoint()))
+                        .region(Region.US_EAST_1)
+                        .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("test", "test")))
+                        .build()) {
+                    new DynamoDbSeeder(dynamoDb, config).preparar();
+                }
+            }
+            case "memory" -> new MemoryContactSeeder(config).preparar();
+            default -> throw new IllegalArgumentException("Storage desconhecido: " + config.storage());
+        }
+    }
+
+    private static List<SimulatedClient> criarClientes(LoadTestConfig config, TokenFactory tokenFactory,
+                                                       HttpClient httpClient, LoadTestMetrics metrics) {
+        List<SimulatedClient> clientes = new ArrayList<>(config.usuarios());
+        for (int i = 0; i < config.usuarios(); i++) {
+            clientes.add(new SimulatedClient(config.emailDoUsuario(i), config.contatosDe(i), config, tokenFactory,
+                    httpClient, metrics));
+        }
+        return clientes;
+    }
+}
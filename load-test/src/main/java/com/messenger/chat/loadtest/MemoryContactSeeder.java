@@ -0,0 +1,73 @@
+package com.messenger.chat.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Popula a rede de contatos do teste em um chat-service rodando com {@code chat.storage.engine=memory} e
+ * {@code chat.storage.memory.seed-endpoint=true}, usando o endpoint {@code POST /admin/contatos}.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class MemoryContactSeeder {
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final int TAMANHO_LOTE = 1_000;
+
+    private final LoadTestConfig config;
+
+    public void preparar() throws Exception {
+        HttpClient httpClient = HttpClient.newHttpClient();
+        URI uri = URI.create(config.adminUrl() + "/admin/contatos");
+        List<Map<String, Object>> lote = new ArrayList<>(TAMANHO_LOTE);
+        long total = 0;
+
+        for (int i = 0; i < config.usuarios(); i++) {
+            for (String contato : config.contatosDe(i)) {
+                lote.add(Map.of(
+                        "usuarioEmail", config.emailDoUsuario(i),
+                        "contatoEmail", contato,
+                        "aceito", true,
+                        "bloqueado", false
+                ));
+
+                if (lote.size() == TAMANHO_LOTE) {
+                    gravar(httpClient, uri, lote);
+                    total += lote.size();
+                    lote.clear();
+                }
+            }
+        }
+
+        if (!lote.isEmpty()) {
+            gravar(httpClient, uri, lote);
+            total += lote.size();
+        }
+        log.info("{} relações de contato carregadas em {} para {} usuários", total, uri, config.usuarios());
+    }
+
+    private void gravar(HttpClient httpClient, URI uri, List<Map<String, Object>> lote) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(lote)))
+                .build();
+
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() == 404) {
+            throw new IllegalStateException("Endpoint de carga desabilitado: inicie o serviço com "
+                    + "chat.storage.engine=memory e chat.storage.memory.seed-endpoint=true");
+        }
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Falha ao carregar contatos (" + response.statusCode() + "): " + response.body());
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.messenger.chat.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Cliente WebSocket simulado. Executa em uma virtual thread própria, enviando mensagens para contatos
+ * aleatórios em intervalos exponenciais e, ocasionalmente, refazendo a conexão. Uma fração das reconexões
+ * ({@code --reconexao-completa}) fecha a conexão normalmente e volta sem token, passando pelo fluxo completo
+ * (presença e mensagens offline); as demais derrubam a conexão e a retomam com o token.
+ */
+@Slf4j
+public class SimulatedClient implements WebSocket.Listener {
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final String PREFIXO_CONTEUDO = "lt:";
+
+    private final String email;
+    private final List<String> contatos;
+    private final LoadTestConfig config;
+    private final TokenFactory tokenFactory;
+    private final HttpClient httpClient;
+    private final LoadTestMetrics metrics;
+
+    private final StringBuilder fragmentos = new StringBuilder();
+    private volatile WebSocket webSocket;
+    private volatile String resumeToken;
+    private volatile long conectadoDesde;
+
+    public SimulatedClient(String email, List<String> contatos, LoadTestConfig config, TokenFactory tokenFactory,
+                           HttpClient httpClient, LoadTestMetrics metrics) {
+        this.email = email;
+        this.contatos = contatos;
+        this.config = config;
+        this.tokenFactory = tokenFactory;
+        this.httpClient = httpClient;
+        this.metrics = metrics;
+    }
+
+    public void conectar() {
+        // Marcado antes do handshake: o que foi enviado antes disso só pode chegar por reentrega
+        conectadoDesde = System.nanoTime();
+        String query = "?token=" + tokenFactory.gerarToken(email) + (resumeToken != null ? "&resume=" + resumeToken : "");
+        URI uri = URI.create(config.url() + query);
+        webSocket = httpClient.newWebSocketBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .buildAsync(uri, this)
+                .join();
+        metrics.conexao();
+    }
+
+    public void executar(Instant fim) throws InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        while (Instant.now().isBefore(fim)) {
+            double intervalo = -Math.log(1 - random.nextDouble()) / config.mensagensPorSegundo();
+            Thread.sleep(Duration.ofNanos((long) (intervalo * 1_000_000_000L)));
+
+            try {
+                if (random.nextDouble() < config.probabilidadeReconexao()) {
+                    reconectar();
+                } else if (!contatos.isEmpty()) {
+                    enviar(contatos.get(random.nextInt(contatos.size())));
+                }
+            } catch (Exception e) {
+                metrics.erro();
+                log.debug("Erro no cliente {}", email, e);
+            }
+        }
+    }
+
+    public void fechar() {
+        WebSocket atual = webSocket;
+        if (atual != null && !atual.isOutputClosed()) {
+            atual.sendClose(WebSocket.NORMAL_CLOSURE, "fim do teste").join();
+        }
+    }
+
+    private void enviar(String destinatario) throws Exception {
+        long enviadaEm = System.nanoTime();
+        String payload = mapper.writeValueAsString(Map.of(
+                "to", destinatario,
+                "conteudo", PREFIXO_CONTEUDO + enviadaEm
+        ));
+        webSocket.sendText(payload, true).join();
+        metrics.enviada(enviadaEm);
+    }
+
+    private void reconectar() throws InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        boolean completa = random.nextDouble() < config.fracaoReconexaoCompleta();
+        if (completa) {
+            // Saída intencional: o servidor conclui a desconexão e a volta passa pelo fluxo completo
+            webSocket.sendClose(WebSocket.NORMAL_CLOSURE, "reconexao").join();
+            resumeToken = null;
+        } else {
+            // Queda de rede: sem handshake de fechamento, o servidor suspende a sessão até a retomada
+            webSocket.abort();
+        }
+        Thread.sleep(Duration.ofMillis(random.nextLong(100, 2_000)));
+        conectar();
+        metrics.reconexao(completa);
+    }
+
+    @Override
+    public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+        fragmentos.append(data);
+        if (last) {
+            processar(fragmentos.toString());
+            fragmentos.setLength(0);
+        }
+        webSocket.request(1);
+        return null;
+    }
+
+    @Override
+    public void onError(WebSocket webSocket, Throwable error) {
+        metrics.erro();
+        log.debug("Erro de transporte no cliente {}", email, error);
+    }
+
+    private void processar(String texto) {
+        JsonNode json;
+        try {
+            json = mapper.readTree(texto);
+        } catch (Exception e) {
+            // O servidor responde recusas (token inválido, contato não permitido) em texto puro
+            metrics.negada();
+            return;
+        }
+
+        if (json.has("type")) {
+            switch (json.path("type").asText()) {
+                case "status" -> metrics.presenca();
+                case "session" -> resumeToken = json.path("resumeToken").asText(null);
+                default -> {
+                }
+            }
+            return;
+        }
+
+        String conteudo = json.path("conteudo").asText("");
+        if (conteudo.startsWith(PREFIXO_CONTEUDO)) {
+            long enviadaEm = Long.parseLong(conteudo.substring(PREFIXO_CONTEUDO.length()));
+            if (enviadaEm < conectadoDesde) {
+                // Enviada enquanto este cliente estava desconectado (fila offline ou buffer de retomada)
+                metrics.reentregue(enviadaEm);
+            } else {
+                metrics.recebida(enviadaEm);
+            }
+        }
+    }
+}
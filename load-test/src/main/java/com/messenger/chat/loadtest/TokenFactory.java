@@ -0,0 +1,26 @@
+package com.messenger.chat.loadtest;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Gera tokens JWT no mesmo formato validado por {@code TokenUtils} no chat-service.
+ */
+public class TokenFactory {
+
+    private static final String SECRET = "7ce86ced-b98f-4ff0-8366-f27b0ffcdc48";
+    private static final String ISSUER = "local-auth0";
+
+    private final Algorithm algorithm = Algorithm.HMAC256(SECRET);
+
+    public String gerarToken(String email) {
+        return JWT.create()
+                .withIssuer(ISSUER)
+                .withClaim("email", email)
+                .withExpiresAt(Instant.now().plus(1, ChronoUnit.DAYS))
+                .sign(algorithm);
+    }
+}
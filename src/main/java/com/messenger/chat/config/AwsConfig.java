@@ -1,5 +1,6 @@
 package com.messenger.chat.config;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import software.amazon.awssdk.regions.Region;
@@ -8,6 +9,7 @@ import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import java.net.URI;
 
 @Configuration
+@ConditionalOnProperty(name = "chat.storage.engine", havingValue = "dynamodb", matchIfMissing = true)
 public class AwsConfig {
     @Bean
     public DynamoDbClient dynamoDbClient() {
@@ -1,6 +1,7 @@
 package com.messenger.chat.config;
 
 import com.messenger.chat.redis.RedisSubscriber;
+import com.messenger.chat.tracing.DeliveryTracer;
 import com.messenger.chat.websocket.ChatWebSocketHandler;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -47,7 +48,8 @@ public class RedisConfig {
     }
 
     @Bean
-    public RedisSubscriber redisSubscriber(ChatWebSocketHandler chatWebSocketHandler, Executor taskExecutor) {
-        return new RedisSubscriber(chatWebSocketHandler, taskExecutor);
+    public RedisSubscriber redisSubscriber(ChatWebSocketHandler chatWebSocketHandler, Executor taskExecutor,
+                                           DeliveryTracer deliveryTracer) {
+        return new RedisSubscriber(chatWebSocketHandler, taskExecutor, deliveryTracer);
     }
 }
@@ -0,0 +1,44 @@
+package com.messenger.chat.config;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.exporter.logging.otlp.OtlpJsonLoggingSpanExporter;
+import io.opentelemetry.exporter.otlp.trace.OtlpGrpcSpanExporter;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.SdkTracerProviderBuilder;
+import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class TracingConfig {
+
+    /**
+     * A amostragem é decidida pelo DeliveryTracer, então o SDK exporta todo span que recebe.
+     * Exporters: "otlp" (collector local via gRPC), "logging" (OTLP JSON no log, para gravar em arquivo)
+     * ou "none".
+     */
+    @Bean(destroyMethod = "close")
+    public OpenTelemetrySdk openTelemetry(@Value("${chat.tracing.exporter}") String exporter,
+                                          @Value("${chat.tracing.otlp-endpoint}") String otlpEndpoint) {
+        SdkTracerProviderBuilder tracerProvider = SdkTracerProvider.builder()
+                .setResource(Resource.getDefault().merge(Resource.create(
+                        Attributes.builder().put("service.name", "chat-service").build())));
+
+        switch (exporter) {
+            case "otlp" -> tracerProvider.addSpanProcessor(BatchSpanProcessor.builder(
+                    OtlpGrpcSpanExporter.builder().setEndpoint(otlpEndpoint).build()).build());
+            case "logging" -> tracerProvider.addSpanProcessor(BatchSpanProcessor.builder(
+                    OtlpJsonLoggingSpanExporter.create()).build());
+            case "none" -> {
+            }
+            default -> throw new IllegalArgumentException("Exporter de tracing desconhecido: " + exporter);
+        }
+
+        return OpenTelemetrySdk.builder()
+                .setTracerProvider(tracerProvider.build())
+                .build();
+    }
+}
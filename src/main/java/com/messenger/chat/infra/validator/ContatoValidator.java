@@ -1,23 +1,19 @@
 package com.messenger.chat.infra.validator;
 
+import com.messenger.chat.model.Contato;
+import com.messenger.chat.storage.ContactStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
-import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
-import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
-import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
-import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
 
-import java.util.Map;
+import java.util.Optional;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class ContatoValidator {
 
-    private static final String TABELA_CONTATOS = "contatos";
-
-    private final DynamoDbClient dynamoDb;
+    private final ContactStore contactStore;
 
     /**
      * Verifica se o usuário remetente pode enviar mensagens ao destinatário.
@@ -27,28 +23,13 @@ public class ContatoValidator {
      * @return true se o contato existir, for aceito e não estiver bloqueado
      */
     public boolean podeConversar(String remetenteEmail, String destinatarioEmail) {
-        Map<String, AttributeValue> key = Map.of(
-                "usuario_email", AttributeValue.fromS(remetenteEmail),
-                "contato_email", AttributeValue.fromS(destinatarioEmail)
-        );
-
-        GetItemRequest request = GetItemRequest.builder()
-                .tableName(TABELA_CONTATOS)
-                .key(key)
-                .build();
-
-        GetItemResponse response = dynamoDb.getItem(request);
+        Optional<Contato> contato = contactStore.buscarContato(remetenteEmail, destinatarioEmail);
 
-        if (!response.hasItem()) {
+        if (contato.isEmpty()) {
             log.info("Contato entre {} e {} não encontrado.", remetenteEmail, destinatarioEmail);
             return false;
         }
 
-        Map<String, AttributeValue> item = response.item();
-
-        boolean aceito = item.containsKey("aceito") && item.get("aceito").bool();
-        boolean bloqueado = item.containsKey("bloqueado") && item.get("bloqueado").bool();
-
-        return aceito && !bloqueado;
+        return contato.get().isAceito() && !contato.get().isBloqueado();
     }
 }
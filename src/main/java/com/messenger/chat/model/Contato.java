@@ -0,0 +1,15 @@
+package com.messenger.chat.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class Contato {
+    String usuarioEmail;
+    String contatoEmail;
+    boolean aceito;
+    boolean bloqueado;
+}
@@ -1,5 +1,7 @@
 package com.messenger.chat.redis;
 
+import com.messenger.chat.tracing.DeliveryStage;
+import com.messenger.chat.tracing.DeliveryTrace;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.core.StringRedisTemplate;
@@ -16,4 +18,16 @@ public class RedisPublisher {
         log.debug("📤 Publicando no canal {}: {}", channel, message);
         redisTemplate.convertAndSend(channel, message);
     }
+
+    /**
+     * Publica a mensagem anexando o cabeçalho de trace, quando a mensagem foi amostrada.
+     */
+    public void publish(String channel, String message, DeliveryTrace trace) {
+        if (trace == null) {
+            publish(channel, message);
+            return;
+        }
+        trace.marcar(DeliveryStage.PUBLICADA);
+        publish(channel, trace.anexarCabecalho(message));
+    }
 }
\ No newline at end of file
@@ -1,5 +1,8 @@
 package com.messenger.chat.redis;
 
+import com.messenger.chat.tracing.DeliveryStage;
+import com.messenger.chat.tracing.DeliveryTrace;
+import com.messenger.chat.tracing.DeliveryTracer;
 import com.messenger.chat.websocket.ChatWebSocketHandler;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -10,7 +13,7 @@ import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
 
 import java.nio.charset.StandardCharsets;
-import java.util.Set;
+import java.util.List;
 import java.util.concurrent.Executor;
 
 @Slf4j
@@ -20,11 +23,19 @@ public class RedisSubscriber implements MessageListener {
 
     private final ChatWebSocketHandler chatWebSocketHandler;
     private final Executor taskExecutor;
+    private final DeliveryTracer deliveryTracer;
 
     @Override
     public void onMessage(Message message, byte[] pattern) {
         String canal = new String(message.getChannel(), StandardCharsets.UTF_8);
-        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        String corpo = new String(message.getBody(), StandardCharsets.UTF_8);
+
+        DeliveryTrace trace = DeliveryTrace.decodificar(corpo);
+        if (trace != null) {
+            trace.marcar(DeliveryStage.REDIS_ENTREGUE);
+            corpo = DeliveryTrace.removerCabecalho(corpo);
+        }
+        String body = corpo;
 
         if (!canal.startsWith("chat:")) {
             log.warn("📛 Canal inválido ignorado: {}", canal);
@@ -35,7 +46,14 @@ public class RedisSubscriber implements MessageListener {
 
         String destinatarioEmail = canal.substring("chat:".length());
 
-        Set<WebSocketSession> sessions = chatWebSocketHandler.getSessions(destinatarioEmail);
+        // A suspensão é consultada antes das sessões: durante uma retomada a nova sessão já está registrada,
+        // mas as mensagens continuam no buffer até o reenvio terminar, para não chegarem fora de ordem
+        if (chatWebSocketHandler.bufferizarSeSuspensa(destinatarioEmail, body)) {
+            log.info("⏸️ Sessão de {} suspensa, mensagem guardada para retomada", destinatarioEmail);
+            return;
+        }
+
+        List<WebSocketSession> sessions = chatWebSocketHandler.getSessions(destinatarioEmail);
         if (sessions.isEmpty()) {
             log.warn("⚠️ Nenhuma sessão WebSocket ativa para {}", destinatarioEmail);
             return;
@@ -43,6 +61,9 @@ public class RedisSubscriber implements MessageListener {
 
         // Criar virtual thread para envio async
         taskExecutor.execute(() -> {
+            if (trace != null) {
+                trace.marcar(DeliveryStage.DESPACHADA);
+            }
             for (WebSocketSession session : sessions) {
                 if (session.isOpen()) {
                     try {
@@ -55,6 +76,9 @@ public class RedisSubscriber implements MessageListener {
                     log.warn("⚠️ Sessão WebSocket {} para {} está fechada", session.getId(), destinatarioEmail);
                 }
             }
+            if (trace != null) {
+                deliveryTracer.concluir(trace, destinatarioEmail, sessions.size());
+            }
         });
     }
 }
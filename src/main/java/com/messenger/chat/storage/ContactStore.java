@@ -0,0 +1,27 @@
+package com.messenger.chat.storage;
+
+import com.messenger.chat.model.Contato;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Grafo de contatos entre usuários.
+ */
+public interface ContactStore {
+
+    /**
+     * Lista os emails dos contatos cadastrados pelo usuário.
+     */
+    List<String> listarContatos(String usuarioEmail);
+
+    /**
+     * Busca a relação de contato do usuário com o contato informado, se existir.
+     */
+    Optional<Contato> buscarContato(String usuarioEmail, String contatoEmail);
+
+    /**
+     * Cria ou substitui a relação de contato.
+     */
+    void salvarContato(Contato contato);
+}
@@ -0,0 +1,27 @@
+package com.messenger.chat.storage;
+
+import com.messenger.chat.model.ChatMessage;
+
+import java.util.List;
+
+/**
+ * Fila de mensagens pendentes para usuários offline.
+ * As implementações são síncronas; o despacho assíncrono fica a cargo de {@code MessageService}.
+ */
+public interface OfflineMessageStore {
+
+    /**
+     * Enfileira a mensagem para o destinatário ({@link ChatMessage#getTo()}).
+     */
+    void salvar(ChatMessage mensagem);
+
+    /**
+     * Retorna as mensagens ainda não entregues ao usuário, na ordem em que foram salvas.
+     */
+    List<ChatMessage> buscarPendentes(String email);
+
+    /**
+     * Remove todas as mensagens pendentes do usuário.
+     */
+    void remover(String email);
+}
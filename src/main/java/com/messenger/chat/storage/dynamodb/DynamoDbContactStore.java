@@ -0,0 +1,85 @@
+package com.messenger.chat.storage.dynamodb;
+
+import com.messenger.chat.model.Contato;
+import com.messenger.chat.storage.ContactStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+@Component
+@ConditionalOnProperty(name = "chat.storage.engine", havingValue = "dynamodb", matchIfMissing = true)
+public class DynamoDbContactStore implements ContactStore {
+
+    private final DynamoDbClient dynamoDb;
+    private final String tabela;
+
+    public DynamoDbContactStore(DynamoDbClient dynamoDb,
+                                @Value("${chat.storage.dynamodb.tabela-contatos}") String tabela) {
+        this.dynamoDb = dynamoDb;
+        this.tabela = tabela;
+    }
+
+    @Override
+    public List<String> listarContatos(String usuarioEmail) {
+        QueryRequest request = QueryRequest.builder()
+                .tableName(tabela)
+                .keyConditionExpression("usuario_email = :usuario")
+                .expressionAttributeValues(Map.of(":usuario", AttributeValue.fromS(usuarioEmail)))
+                .projectionExpression("contato_email")
+                .build();
+
+        QueryResponse response = dynamoDb.query(request);
+
+        return response.items().stream()
+                .map(item -> item.get("contato_email").s())
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Optional<Contato> buscarContato(String usuarioEmail, String contatoEmail) {
+        Map<String, AttributeValue> key = Map.of(
+                "usuario_email", AttributeValue.fromS(usuarioEmail),
+                "contato_email", AttributeValue.fromS(contatoEmail)
+        );
+
+        GetItemRequest request = GetItemRequest.builder()
+                .tableName(tabela)
+                .key(key)
+                .build();
+
+        GetItemResponse response = dynamoDb.getItem(request);
+
+        if (!response.hasItem()) {
+            return Optional.empty();
+        }
+
+        Map<String, AttributeValue> item = response.item();
+
+        boolean aceito = item.containsKey("aceito") && item.get("aceito").bool();
+        boolean bloqueado = item.containsKey("bloqueado") && item.get("bloqueado").bool();
+
+        return Optional.of(new Contato(usuarioEmail, contatoEmail, aceito, bloqueado));
+    }
+
+    @Override
+    public void salvarContato(Contato contato) {
+        PutItemRequest request = PutItemRequest.builder()
+                .tableName(tabela)
+                .item(Map.of(
+                        "usuario_email", AttributeValue.fromS(contato.getUsuarioEmail()),
+                        "contato_email", AttributeValue.fromS(contato.getContatoEmail()),
+                        "aceito", AttributeValue.fromBool(contato.isAceito()),
+                        "bloqueado", AttributeValue.fromBool(contato.isBloqueado())
+                ))
+                .build();
+
+        dynamoDb.putItem(request);
+    }
+}
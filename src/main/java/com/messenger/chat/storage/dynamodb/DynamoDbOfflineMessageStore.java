@@ -0,0 +1,119 @@
+package com.messenger.chat.storage.dynamodb;
+
+import com.messenger.chat.model.ChatMessage;
+import com.messenger.chat.storage.OfflineMessageStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.*;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "chat.storage.engine", havingValue = "dynamodb", matchIfMissing = true)
+public class DynamoDbOfflineMessageStore implements OfflineMessageStore {
+
+    // Largura fixa: Instant.toString omite zeros à direita e a ordem lexicográfica da range key deixa de ser cronológica
+    private static final DateTimeFormatter FORMATO_TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSSSS'Z'").withZone(ZoneOffset.UTC);
+
+    private final DynamoDbClient dynamoDb;
+    private final String tabela;
+    private final AtomicLong ultimoTimestampMicros = new AtomicLong();
+
+    public DynamoDbOfflineMessageStore(DynamoDbClient dynamoDb,
+                                       @Value("${chat.storage.dynamodb.tabela-mensagens}") String tabela) {
+        this.dynamoDb = dynamoDb;
+        this.tabela = tabela;
+    }
+
+    @Override
+    public void salvar(ChatMessage mensagem) {
+        Map<String, AttributeValue> item = Map.of(
+                "destinatario_email", AttributeValue.fromS(mensagem.getTo()),
+                "timestamp", AttributeValue.fromS(proximoTimestamp()),
+                "remetente_email", AttributeValue.fromS(mensagem.getFrom()),
+                "conteudo", AttributeValue.fromS(mensagem.getConteudo()),
+                "entregue", AttributeValue.fromBool(false)
+        );
+
+        PutItemRequest request = PutItemRequest.builder()
+                .tableName(tabela)
+                .item(item)
+                .build();
+
+        dynamoDb.putItem(request);
+    }
+
+    @Override
+    public List<ChatMessage> buscarPendentes(String email) {
+        QueryRequest request = QueryRequest.builder()
+                .tableName(tabela)
+                .keyConditionExpression("destinatario_email = :email")
+                .expressionAttributeValues(Map.of(
+                        ":email", AttributeValue.fromS(email),
+                        ":false", AttributeValue.fromBool(false)
+                ))
+                .filterExpression("entregue = :false")
+                .build();
+
+        QueryResponse response = dynamoDb.query(request);
+        List<ChatMessage> mensagens = new ArrayList<>();
+
+        for (var item : response.items()) {
+            ChatMessage msg = new ChatMessage();
+            msg.setTo(item.get("destinatario_email").s());
+            msg.setFrom(item.get("remetente_email").s());
+            msg.setConteudo(item.get("conteudo").s());
+            mensagens.add(msg);
+        }
+        return mensagens;
+    }
+
+    @Override
+    public void remover(String email) {
+        QueryRequest queryRequest = QueryRequest.builder()
+                .tableName(tabela)
+                .keyConditionExpression("destinatario_email = :email")
+                .expressionAttributeValues(Map.of(":email", AttributeValue.fromS(email)))
+                .build();
+
+        var response = dynamoDb.query(queryRequest);
+
+        for (var item : response.items()) {
+            String destinatario = item.get("destinatario_email").s();
+            String timestamp = item.get("timestamp").s();
+
+            DeleteItemRequest deleteRequest = DeleteItemRequest.builder()
+                    .tableName(tabela)
+                    .key(Map.of(
+                            "destinatario_email", AttributeValue.fromS(destinatario),
+                            "timestamp", AttributeValue.fromS(timestamp)
+                    ))
+                    .build();
+
+            dynamoDb.deleteItem(deleteRequest);
+            log.info("🗑️ Mensagem offline deletada para {}", destinatario);
+        }
+    }
+
+    /**
+     * Timestamp estritamente crescente neste nó: duas mensagens salvas no mesmo microssegundo não podem
+     * compartilhar a range key, senão a segunda sobrescreve a primeira.
+     */
+    private String proximoTimestamp() {
+        Instant agora = Instant.now();
+        long micros = agora.getEpochSecond() * 1_000_000L + agora.getNano() / 1_000;
+        long unico = ultimoTimestampMicros.accumulateAndGet(micros, (ultimo, atual) -> Math.max(ultimo + 1, atual));
+        return FORMATO_TIMESTAMP.format(Instant.EPOCH.plusNanos(unico * 1_000));
+    }
+}
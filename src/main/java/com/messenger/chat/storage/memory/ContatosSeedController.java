@@ -0,0 +1,35 @@
+package com.messenger.chat.storage.memory;
+
+import com.messenger.chat.model.Contato;
+import com.messenger.chat.storage.ContactStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Carga de contatos para a engine em memória, que não tem outra fonte de dados.
+ * O endpoint não tem autenticação e permite criar relações aceitas entre quaisquer usuários, por isso só é
+ * registrado com {@code chat.storage.engine=memory} e {@code chat.storage.memory.seed-endpoint=true}
+ * (desligado por padrão, usado apenas pelo teste de carga).
+ */
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnExpression("'${chat.storage.engine}' == 'memory' and ${chat.storage.memory.seed-endpoint:false}")
+public class ContatosSeedController {
+
+    private final ContactStore contactStore;
+
+    @PostMapping("/admin/contatos")
+    public Map<String, Integer> carregar(@RequestBody List<Contato> contatos) {
+        contatos.forEach(contactStore::salvarContato);
+        log.info("📒 {} contatos carregados na engine em memória", contatos.size());
+        return Map.of("gravados", contatos.size());
+    }
+}
@@ -0,0 +1,46 @@
+package com.messenger.chat.storage.memory;
+
+import com.messenger.chat.model.Contato;
+import com.messenger.chat.storage.ContactStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Grafo de contatos em memória, indexado pelo email do usuário em um {@link StripedMap}.
+ */
+@Component
+@ConditionalOnProperty(name = "chat.storage.engine", havingValue = "memory")
+public class InMemoryContactStore implements ContactStore {
+
+    private final StripedMap<Map<String, Contato>> contatos;
+
+    public InMemoryContactStore(@Value("${chat.storage.memory.faixas}") int faixas) {
+        this.contatos = new StripedMap<>(faixas);
+    }
+
+    @Override
+    public List<String> listarContatos(String usuarioEmail) {
+        return contatos.ler(usuarioEmail, porContato ->
+                porContato == null ? Collections.emptyList() : new ArrayList<>(porContato.keySet()));
+    }
+
+    @Override
+    public Optional<Contato> buscarContato(String usuarioEmail, String contatoEmail) {
+        return contatos.ler(usuarioEmail, porContato ->
+                porContato == null ? Optional.empty() : Optional.ofNullable(porContato.get(contatoEmail)));
+    }
+
+    @Override
+    public void salvarContato(Contato contato) {
+        Contato copia = new Contato(contato.getUsuarioEmail(), contato.getContatoEmail(), contato.isAceito(), contato.isBloqueado());
+        contatos.alterar(contato.getUsuarioEmail(), LinkedHashMap::new, porContato -> porContato.put(copia.getContatoEmail(), copia));
+    }
+}
@@ -0,0 +1,51 @@
+package com.messenger.chat.storage.memory;
+
+import com.messenger.chat.model.ChatMessage;
+import com.messenger.chat.storage.OfflineMessageStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Fila offline em memória: um {@link MessageRingBuffer} por destinatário em um {@link StripedMap}.
+ * Os dados não sobrevivem a um restart e não são compartilhados entre nós.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "chat.storage.engine", havingValue = "memory")
+public class InMemoryOfflineMessageStore implements OfflineMessageStore {
+
+    private final StripedMap<MessageRingBuffer> filas;
+    private final int capacidadePorUsuario;
+
+    public InMemoryOfflineMessageStore(@Value("${chat.storage.memory.faixas}") int faixas,
+                                       @Value("${chat.storage.memory.capacidade-por-usuario}") int capacidadePorUsuario) {
+        this.filas = new StripedMap<>(faixas);
+        this.capacidadePorUsuario = capacidadePorUsuario;
+    }
+
+    @Override
+    public void salvar(ChatMessage mensagem) {
+        boolean descartou = filas.alterar(mensagem.getTo(),
+                () -> new MessageRingBuffer(capacidadePorUsuario),
+                fila -> fila.adicionar(mensagem));
+
+        if (descartou) {
+            log.warn("⚠️ Fila offline de {} cheia, mensagem mais antiga descartada", mensagem.getTo());
+        }
+    }
+
+    @Override
+    public List<ChatMessage> buscarPendentes(String email) {
+        return filas.ler(email, fila -> fila == null ? Collections.emptyList() : fila.copiar());
+    }
+
+    @Override
+    public void remover(String email) {
+        filas.remover(email);
+    }
+}
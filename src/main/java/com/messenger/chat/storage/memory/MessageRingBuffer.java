@@ -0,0 +1,45 @@
+package com.messenger.chat.storage.memory;
+
+import com.messenger.chat.model.ChatMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Buffer circular de capacidade fixa. Quando cheio, a mensagem mais antiga é sobrescrita.
+ * Não é thread-safe: o acesso é protegido pelo lock da faixa em {@link StripedMap}.
+ */
+class MessageRingBuffer {
+
+    private final ChatMessage[] mensagens;
+    private int inicio;
+    private int tamanho;
+
+    MessageRingBuffer(int capacidade) {
+        this.mensagens = new ChatMessage[capacidade];
+    }
+
+    /**
+     * Adiciona a mensagem ao final do buffer.
+     *
+     * @return true se uma mensagem antiga precisou ser descartada
+     */
+    boolean adicionar(ChatMessage mensagem) {
+        int fim = (inicio + tamanho) % mensagens.length;
+        mensagens[fim] = mensagem;
+        if (tamanho < mensagens.length) {
+            tamanho++;
+            return false;
+        }
+        inicio = (inicio + 1) % mensagens.length;
+        return true;
+    }
+
+    List<ChatMessage> copiar() {
+        List<ChatMessage> copia = new ArrayList<>(tamanho);
+        for (int i = 0; i < tamanho; i++) {
+            copia.add(mensagens[(inicio + i) % mensagens.length]);
+        }
+        return copia;
+    }
+}
@@ -0,0 +1,79 @@
+package com.messenger.chat.storage.memory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Mapa particionado em faixas (stripes), cada uma com seu próprio {@link ReentrantReadWriteLock}.
+ * Operações sobre chaves de faixas diferentes não disputam o mesmo lock, e o valor de uma chave
+ * só é acessado dentro do lock da sua faixa, o que permite usar estruturas não thread-safe como valor.
+ */
+class StripedMap<V> {
+
+    private final Faixa<V>[] faixas;
+    private final int mascara;
+
+    @SuppressWarnings("unchecked")
+    StripedMap(int faixasMinimas) {
+        // Potência de 2 mais próxima acima do mínimo, para selecionar a faixa com uma máscara
+        int quantidade = faixasMinimas <= 1 ? 1 : Integer.highestOneBit(faixasMinimas - 1) << 1;
+        this.faixas = new Faixa[quantidade];
+        this.mascara = quantidade - 1;
+        for (int i = 0; i < quantidade; i++) {
+            faixas[i] = new Faixa<>();
+        }
+    }
+
+    /**
+     * Executa a leitura sob o lock compartilhado da faixa. O valor recebido pode ser {@code null}.
+     */
+    <R> R ler(String chave, Function<V, R> leitura) {
+        Faixa<V> faixa = faixaDe(chave);
+        faixa.lock.readLock().lock();
+        try {
+            return leitura.apply(faixa.valores.get(chave));
+        } finally {
+            faixa.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Executa a alteração sob o lock exclusivo da faixa, criando o valor se ainda não existir.
+     */
+    <R> R alterar(String chave, Supplier<V> criar, Function<V, R> alteracao) {
+        Faixa<V> faixa = faixaDe(chave);
+        faixa.lock.writeLock().lock();
+        try {
+            return alteracao.apply(faixa.valores.computeIfAbsent(chave, k -> criar.get()));
+        } finally {
+            faixa.lock.writeLock().unlock();
+        }
+    }
+
+    V remover(String chave) {
+        Faixa<V> faixa = faixaDe(chave);
+        faixa.lock.writeLock().lock();
+        try {
+            return faixa.valores.remove(chave);
+        } finally {
+            faixa.lock.writeLock().unlock();
+        }
+    }
+
+    int quantidadeFaixas() {
+        return faixas.length;
+    }
+
+    private Faixa<V> faixaDe(String chave) {
+        int h = chave.hashCode();
+        return faixas[(h ^ (h >>> 16)) & mascara];
+    }
+
+    private static final class Faixa<V> {
+        final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        final Map<String, V> valores = new HashMap<>();
+    }
+}
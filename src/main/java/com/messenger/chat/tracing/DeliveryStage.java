@@ -0,0 +1,19 @@
+package com.messenger.chat.tracing;
+
+/**
+ * Etapas percorridas por uma mensagem, na ordem em que acontecem.
+ */
+public enum DeliveryStage {
+    /** Entrada em {@code handleTextMessage}. */
+    RECEBIDA,
+    /** Após a validação de contato ({@code podeConversar}). */
+    VALIDADA,
+    /** Imediatamente antes do publish no Redis. */
+    PUBLICADA,
+    /** Chegada em {@code RedisSubscriber.onMessage} no nó do destinatário. */
+    REDIS_ENTREGUE,
+    /** Início da tarefa de envio no executor de virtual threads. */
+    DESPACHADA,
+    /** Escrita concluída em todas as sessões do destinatário. */
+    ENVIADA
+}
@@ -0,0 +1,100 @@
+package com.messenger.chat.tracing;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Identificador e timestamps (epoch em microssegundos) de uma mensagem amostrada.
+ * <p>
+ * Entre o publisher e o subscriber o trace viaja como um cabeçalho de uma linha antes do JSON da mensagem
+ * ({@code #trace;<id>;<t0>;<t1>;...\n}). Mensagens não amostradas são publicadas sem cabeçalho, então o
+ * custo no subscriber se resume a verificar o primeiro caractere do corpo.
+ * Como os timestamps vêm de nós diferentes, a etapa {@link DeliveryStage#REDIS_ENTREGUE} inclui o
+ * desvio de relógio entre eles.
+ */
+public class DeliveryTrace {
+
+    private static final String PREFIXO = "#trace;";
+    private static final DeliveryStage[] ETAPAS = DeliveryStage.values();
+
+    private final String id;
+    private final long[] timestamps;
+
+    private DeliveryTrace(String id, long[] timestamps) {
+        this.id = id;
+        this.timestamps = timestamps;
+    }
+
+    static DeliveryTrace iniciar() {
+        DeliveryTrace trace = new DeliveryTrace(UUID.randomUUID().toString(), new long[ETAPAS.length]);
+        trace.marcar(DeliveryStage.RECEBIDA);
+        return trace;
+    }
+
+    public void marcar(DeliveryStage etapa) {
+        timestamps[etapa.ordinal()] = agoraMicros();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Timestamp da etapa em microssegundos desde a epoch, ou 0 se a etapa não foi marcada.
+     */
+    public long getTimestamp(DeliveryStage etapa) {
+        return timestamps[etapa.ordinal()];
+    }
+
+    public String anexarCabecalho(String corpo) {
+        StringBuilder sb = new StringBuilder(PREFIXO.length() + 160 + corpo.length()).append(PREFIXO).append(id);
+        for (long timestamp : timestamps) {
+            sb.append(';').append(timestamp);
+        }
+        return sb.append('\n').append(corpo).toString();
+    }
+
+    /**
+     * Lê o cabeçalho de trace do corpo recebido do Redis.
+     *
+     * @return o trace, ou null se a mensagem não foi amostrada ou o cabeçalho está malformado
+     */
+    public static DeliveryTrace decodificar(String corpo) {
+        if (corpo.isEmpty() || corpo.charAt(0) != '#' || !corpo.startsWith(PREFIXO)) {
+            return null;
+        }
+
+        int fimCabecalho = corpo.indexOf('\n');
+        if (fimCabecalho < 0) {
+            return null;
+        }
+
+        String[] campos = corpo.substring(PREFIXO.length(), fimCabecalho).split(";");
+        if (campos.length != ETAPAS.length + 1) {
+            return null;
+        }
+
+        long[] timestamps = new long[ETAPAS.length];
+        try {
+            for (int i = 0; i < ETAPAS.length; i++) {
+                timestamps[i] = Long.parseLong(campos[i + 1]);
+            }
+        } catch (NumberFormatException e) {
+            // Cabeçalho corrompido não pode derrubar a entrega: a mensagem segue sem trace
+            return null;
+        }
+        return new DeliveryTrace(campos[0], timestamps);
+    }
+
+    /**
+     * Remove o cabeçalho de trace, devolvendo o JSON original da mensagem.
+     */
+    public static String removerCabecalho(String corpo) {
+        return corpo.substring(corpo.indexOf('\n') + 1);
+    }
+
+    private static long agoraMicros() {
+        Instant agora = Instant.now();
+        return agora.getEpochSecond() * 1_000_000L + agora.getNano() / 1_000;
+    }
+}
@@ -0,0 +1,122 @@
+package com.messenger.chat.tracing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Amostra mensagens no {@code handleTextMessage} e, ao final da entrega, registra a duração de cada
+ * etapa no histograma {@code chat.delivery.stage} e exporta um span por mensagem via OpenTelemetry.
+ * Os buckets do histograma ficam em {@code /actuator/prometheus}; p50/p99/p999 também são publicados
+ * como gauges ({@code chat.delivery.stage.percentile}) visíveis em {@code /actuator/metrics}.
+ * <p>
+ * Com {@code chat.tracing.sample-rate=0} nenhuma mensagem é amostrada e {@link #iniciar()} retorna null
+ * sem alocar nada.
+ */
+@Slf4j
+@Component
+public class DeliveryTracer {
+
+    private final double taxaAmostragem;
+    private final Tracer tracer;
+    private final Map<DeliveryStage, Timer> timersPorEtapa = new EnumMap<>(DeliveryStage.class);
+    private final Timer timerTotal;
+
+    public DeliveryTracer(@Value("${chat.tracing.sample-rate}") double taxaAmostragem,
+                          OpenTelemetry openTelemetry,
+                          MeterRegistry meterRegistry) {
+        this.taxaAmostragem = taxaAmostragem;
+        this.tracer = openTelemetry.getTracer("com.messenger.chat.delivery");
+
+        for (DeliveryStage etapa : DeliveryStage.values()) {
+            if (etapa == DeliveryStage.RECEBIDA) continue;
+            timersPorEtapa.put(etapa, Timer.builder("chat.delivery.stage")
+                    .description("Tempo desde a etapa anterior da entrega da mensagem")
+                    .tag("stage", etapa.name().toLowerCase())
+                    .publishPercentiles(0.5, 0.99, 0.999)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+        this.timerTotal = Timer.builder("chat.delivery.total")
+                .description("Tempo fim a fim da entrega da mensagem")
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Decide se a mensagem será amostrada.
+     *
+     * @return o trace iniciado, ou null se a mensagem não foi amostrada
+     */
+    public DeliveryTrace iniciar() {
+        if (taxaAmostragem <= 0 || ThreadLocalRandom.current().nextDouble() >= taxaAmostragem) {
+            return null;
+        }
+        return DeliveryTrace.iniciar();
+    }
+
+    /**
+     * Marca a etapa final e registra/exporta o trace.
+     */
+    public void concluir(DeliveryTrace trace, String destinatarioEmail, int sessoes) {
+        trace.marcar(DeliveryStage.ENVIADA);
+
+        try {
+            registrarHistogramas(trace);
+            exportar(trace, destinatarioEmail, sessoes);
+        } catch (Exception e) {
+            log.warn("Erro ao registrar trace da mensagem {}", trace.getId(), e);
+        }
+    }
+
+    private void registrarHistogramas(DeliveryTrace trace) {
+        long anterior = trace.getTimestamp(DeliveryStage.RECEBIDA);
+        for (Map.Entry<DeliveryStage, Timer> entry : timersPorEtapa.entrySet()) {
+            long atual = trace.getTimestamp(entry.getKey());
+            if (atual == 0) continue;
+            entry.getValue().record(Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(Math.max(0, atual - anterior))));
+            anterior = atual;
+        }
+        long total = trace.getTimestamp(DeliveryStage.ENVIADA) - trace.getTimestamp(DeliveryStage.RECEBIDA);
+        timerTotal.record(Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(Math.max(0, total))));
+    }
+
+    private void exportar(DeliveryTrace trace, String destinatarioEmail, int sessoes) {
+        long inicio = trace.getTimestamp(DeliveryStage.RECEBIDA);
+        Span span = tracer.spanBuilder("chat.delivery")
+                .setNoParent()
+                .setStartTimestamp(inicio, TimeUnit.MICROSECONDS)
+                .setAttribute("message.id", trace.getId())
+                .setAttribute("chat.recipient", destinatarioEmail)
+                .setAttribute("chat.sessions", sessoes)
+                .startSpan();
+        Context contexto = Context.root().with(span);
+
+        long anterior = inicio;
+        for (DeliveryStage etapa : timersPorEtapa.keySet()) {
+            long atual = trace.getTimestamp(etapa);
+            if (atual == 0) continue;
+            tracer.spanBuilder(etapa.name().toLowerCase())
+                    .setParent(contexto)
+                    .setStartTimestamp(anterior, TimeUnit.MICROSECONDS)
+                    .startSpan()
+                    .end(Math.max(anterior, atual), TimeUnit.MICROSECONDS);
+            anterior = atual;
+        }
+
+        span.end(trace.getTimestamp(DeliveryStage.ENVIADA), TimeUnit.MICROSECONDS);
+    }
+}
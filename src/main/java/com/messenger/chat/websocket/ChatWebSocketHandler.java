@@ -8,6 +8,9 @@ import com.messenger.chat.redis.RedisPublisher;
 import com.messenger.chat.redis.UserSessionManager;
 import com.messenger.chat.services.ContatosService;
 import com.messenger.chat.services.MessageService;
+import com.messenger.chat.tracing.DeliveryStage;
+import com.messenger.chat.tracing.DeliveryTrace;
+import com.messenger.chat.tracing.DeliveryTracer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
@@ -17,12 +20,15 @@ import org.springframework.web.socket.handler.TextWebSocketHandler;
 import java.net.URI;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.function.Consumer;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class ChatWebSocketHandler extends TextWebSocketHandler {
 
+    private static final String ATRIBUTO_RESUME_TOKEN = "resumeToken";
+
     private final RedisPublisher redisPublisher;
     private final TokenUtils tokenUtils;
     private final ContatoValidator contatoValidator;
@@ -30,12 +36,13 @@ public class ChatWebSocketHandler extends TextWebSocketHandler {
     private final UserSessionManager userSessionManager;
     private final ContatosService contatosService;
     private final Executor taskExecutor;
-
-    private final Map<String, Set<WebSocketSession>> sessions = new ConcurrentHashMap<>();
+    private final SessionRegistry sessionRegistry;
+    private final DeliveryTracer deliveryTracer;
+    private final SessionResumeManager sessionResumeManager;
 
     @Override
     public void afterConnectionEstablished(WebSocketSession session) throws Exception {
-        String token = extrairToken(session);
+        String token = extrairParametro(session, "token");
         String email = tokenUtils.getEmailFromToken(token);
 
         if (email == null) {
@@ -43,8 +50,31 @@ public class ChatWebSocketHandler extends TextWebSocketHandler {
             return;
         }
 
-        sessions.computeIfAbsent(email, k -> ConcurrentHashMap.newKeySet()).add(session);
-        userSessionManager.userConnected(email);
+        // A sessão é registrada antes de encerrar a suspensão: enquanto o buffer é reenviado, o que chega do
+        // Redis continua sendo guardado e sai depois dele, e nada fica sem destino entre uma coisa e outra
+        boolean primeiraSessao = sessionRegistry.adicionar(email, session);
+        emitirTokenRetomada(session);
+        Consumer<List<String>> reenviar = pendentes -> reenviarPendentes(session, email, pendentes);
+
+        String resumeToken = extrairParametro(session, "resume");
+        SessionResumeManager.Retomada retomada = resumeToken != null
+                ? sessionResumeManager.retomar(email, resumeToken, reenviar)
+                : null;
+        if (retomada != null) {
+            // Retomada dentro da janela: contatos não foram notificados da queda, basta reenviar o delta
+            log.info("♻️ Sessão retomada para {}, {} mensagens pendentes", email, retomada.mensagens().size());
+            if (retomada.persistenciaOffline() != null) {
+                // O buffer transbordou durante a suspensão: o excedente está na fila offline
+                retomada.persistenciaOffline().whenComplete((ok, ex) -> entregarMensagensOffline(session, email));
+            }
+            return;
+        }
+
+        retomada = sessionResumeManager.reivindicar(email, reenviar);
+        // O contador global é incrementado uma vez por nó, pareado com o decremento da última sessão
+        if (primeiraSessao && retomada == null) {
+            userSessionManager.userConnected(email);
+        }
         log.info("🔗 Conexão aberta para: {}", email);
 
         Map<String, String> payload = Map.of(
@@ -65,6 +95,14 @@ public class ChatWebSocketHandler extends TextWebSocketHandler {
             return null;
         });
 
+        if (retomada != null && retomada.persistenciaOffline() != null) {
+            retomada.persistenciaOffline().whenComplete((ok, ex) -> entregarMensagensOffline(session, email));
+        } else {
+            entregarMensagensOffline(session, email);
+        }
+    }
+
+    private void entregarMensagensOffline(WebSocketSession session, String email) {
         // Buscar mensagens offline async e enviar para o cliente sem bloquear a thread
         messageService.buscarMensagensOffline(email).thenAcceptAsync(mensagensOffline -> {
             for (ChatMessage msg : mensagensOffline) {
@@ -87,28 +125,11 @@ public class ChatWebSocketHandler extends TextWebSocketHandler {
 
     @Override
     public void afterConnectionClosed(WebSocketSession session, CloseStatus status) throws Exception {
-        String token = extrairToken(session);
+        String token = extrairParametro(session, "token");
         String email = tokenUtils.getEmailFromToken(token);
 
         if (email != null) {
-            removerSessao(session);
-
-            contatosService.listarContatos(email).thenAcceptAsync(contatos -> {
-                Map<String, String> payload = Map.of(
-                        "type", "status",
-                        "user", email,
-                        "status", "offline"
-                );
-
-                for (String contato : contatos) {
-                    if (userSessionManager.isUserOnline(contato)) {
-                        redisPublisher.publish("chat:" + contato, JsonUtils.toJson(payload));
-                    }
-                }
-            }, taskExecutor).exceptionally(ex -> {
-                log.error("Erro ao notificar contatos após desconexão de {}", email, ex);
-                return null;
-            });
+            removerSessao(email, session, status);
         } else {
             log.warn("❌ Token inválido ao tentar processar desconexão");
         }
@@ -118,9 +139,10 @@ public class ChatWebSocketHandler extends TextWebSocketHandler {
 
     @Override
     public void handleTextMessage(WebSocketSession session, TextMessage message) throws Exception {
+        DeliveryTrace trace = deliveryTracer.iniciar();
         log.info("➡️ Mensagem recebida: {}", message.getPayload());
 
-        String token = extrairToken(session);
+        String token = extrairParametro(session, "token");
         String remetenteEmail = tokenUtils.getEmailFromToken(token);
 
         if (remetenteEmail == null) {
@@ -137,10 +159,14 @@ public class ChatWebSocketHandler extends TextWebSocketHandler {
             return;
         }
 
+        if (trace != null) {
+            trace.marcar(DeliveryStage.VALIDADA);
+        }
+
         ChatMessage mensagem = (ChatMessage) JsonUtils.toObject(payload, ChatMessage.class);
         mensagem.setFrom(remetenteEmail);
 
-        redisPublisher.publish("chat:" + destinatarioEmail, JsonUtils.toJson(mensagem));
+        redisPublisher.publish("chat:" + destinatarioEmail, JsonUtils.toJson(mensagem), trace);
         log.info("📤 Publicando no canal 'chat:{}'", destinatarioEmail);
 
         if (!userSessionManager.isUserOnline(destinatarioEmail)) {
@@ -153,56 +179,148 @@ public class ChatWebSocketHandler extends TextWebSocketHandler {
         }
     }
 
-    private void removerSessao(WebSocketSession session) {
-        String token = extrairToken(session);
-        if (token == null) {
-            log.warn("Não foi possível extrair token para remover sessão.");
+    private void removerSessao(String email, WebSocketSession session, CloseStatus status) {
+        SessionRegistry.Remocao remocao = sessionRegistry.remover(email, session);
+        if (remocao == SessionRegistry.Remocao.REMOVIDA) {
+            log.info("Sessão removida do usuário {}. Restantes: {}", email, sessionRegistry.getSessions(email).size());
+            return;
+        }
+        if (remocao != SessionRegistry.Remocao.ULTIMA) {
             return;
         }
 
-        String email = tokenUtils.getEmailFromToken(token);
-        if (email == null) {
-            log.warn("Token inválido ao remover sessão.");
+        String resumeToken = (String) session.getAttributes().get(ATRIBUTO_RESUME_TOKEN);
+        if (resumeToken != null && quedaAnormal(status)) {
+            sessionResumeManager.suspender(email, resumeToken, pendentes -> finalizarDesconexao(email, pendentes));
+            log.info("⏸️ Última sessão de {} caiu ({}), aguardando retomada.", email, status);
+        } else {
+            finalizarDesconexao(email, List.of());
+        }
+    }
+
+    /**
+     * Só quedas de conexão abrem a janela de retomada. 1001 (aba fechada, navegação, servidor desligando) e
+     * 1012 (restart) são encerramentos intencionais e seguem direto para a desconexão.
+     * Compara só o código: CloseStatus.equals também compara o motivo.
+     */
+    private static boolean quedaAnormal(CloseStatus status) {
+        return status.equalsCode(CloseStatus.NO_CLOSE_FRAME) || status.equalsCode(CloseStatus.SERVER_ERROR);
+    }
+
+    /**
+     * Conclui a desconexão do usuário neste nó: atualiza a presença global, notifica os contatos e
+     * encaminha para o fluxo offline as mensagens que chegaram durante a suspensão.
+     */
+    private void finalizarDesconexao(String email, List<String> pendentes) {
+        List<WebSocketSession> sessoes = sessionRegistry.getSessions(email);
+        if (!sessoes.isEmpty()) {
+            // Reconectou neste nó pelo fluxo completo depois da expiração: a nova sessão já incrementou o
+            // contador, então o incremento da sessão suspensa ainda precisa ser desfeito
+            userSessionManager.userDisconnected(email);
+            sessoes.forEach(sessao -> reenviarPendentes(sessao, email, pendentes));
             return;
         }
 
-        Set<WebSocketSession> sessSet = sessions.get(email);
-        if (sessSet != null) {
-            boolean removed = sessSet.remove(session);
-            if (removed) {
-                log.info("Sessão removida do usuário {}. Restantes: {}", email, sessSet.size());
-                if (sessSet.isEmpty()) {
-                    sessions.remove(email);
-                    userSessionManager.userDisconnected(email);
-                    log.info("Usuário {} não possui mais sessões ativas e foi removido do mapa.", email);
+        userSessionManager.userDisconnected(email);
+        if (userSessionManager.isUserOnline(email)) {
+            // Reconectou em outro nó durante a janela: lá as mensagens já foram entregues ao vivo,
+            // então o buffer deste nó é descartado e os contatos não recebem presença offline
+            log.info("Usuário {} continua online em outro nó, {} mensagens pendentes descartadas.", email, pendentes.size());
+            return;
+        }
+        log.info("Usuário {} não possui mais sessões ativas e foi removido do registro.", email);
+        pendentes.forEach(this::persistirOffline);
+
+        contatosService.listarContatos(email).thenAcceptAsync(contatos -> {
+            Map<String, String> payload = Map.of(
+                    "type", "status",
+                    "user", email,
+                    "status", "offline"
+            );
+
+            for (String contato : contatos) {
+                if (userSessionManager.isUserOnline(contato)) {
+                    redisPublisher.publish("chat:" + contato, JsonUtils.toJson(payload));
                 }
             }
+        }, taskExecutor).exceptionally(ex -> {
+            log.error("Erro ao notificar contatos após desconexão de {}", email, ex);
+            return null;
+        });
+    }
+
+    /**
+     * Guarda a mensagem recebida do Redis se o destinatário estiver com a sessão suspensa neste nó.
+     *
+     * @return true se a mensagem foi tratada (guardada para retomada ou salva offline)
+     */
+    public boolean bufferizarSeSuspensa(String email, String corpo) {
+        return sessionResumeManager.bufferizar(email, corpo, this::persistirOffline);
+    }
+
+    private CompletableFuture<Void> persistirOffline(String corpo) {
+        // Notificações de presença não são guardadas offline
+        if (JsonUtils.extractField("type", corpo) != null) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        ChatMessage mensagem = (ChatMessage) JsonUtils.toObject(corpo, ChatMessage.class);
+        if (mensagem == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return messageService.salvarMensagemOffline(mensagem).exceptionally(ex -> {
+            log.error("Erro ao salvar mensagem offline para {}", mensagem.getTo(), ex);
+            return null;
+        });
+    }
+
+    private void emitirTokenRetomada(WebSocketSession session) throws Exception {
+        String resumeToken = sessionResumeManager.emitirToken();
+        session.getAttributes().put(ATRIBUTO_RESUME_TOKEN, resumeToken);
+        session.sendMessage(new TextMessage(JsonUtils.toJson(Map.of(
+                "type", "session",
+                "resumeToken", resumeToken
+        ))));
+    }
+
+    private void reenviarPendentes(WebSocketSession session, String email, List<String> pendentes) {
+        for (String corpo : pendentes) {
+            try {
+                if (session.isOpen()) {
+                    session.sendMessage(new TextMessage(corpo));
+                }
+            } catch (Exception e) {
+                log.error("Erro ao reenviar mensagem pendente para {}", email, e);
+            }
         }
     }
 
     @Override
     public void handleTransportError(WebSocketSession session, Throwable exception) throws Exception {
         log.error("Erro transporte WebSocket na sessão {}: {}", session.getId(), exception.getMessage(), exception);
-        removerSessao(session);
-        session.close(CloseStatus.SERVER_ERROR.withReason("Erro no transporte"));
+        // A remoção da sessão acontece em afterConnectionClosed
+        if (session.isOpen()) {
+            session.close(CloseStatus.SERVER_ERROR.withReason("Erro no transporte"));
+        }
     }
 
-    public Set<WebSocketSession> getSessions(String email) {
-        return sessions.getOrDefault(email, Collections.emptySet());
+    public List<WebSocketSession> getSessions(String email) {
+        return sessionRegistry.getSessions(email);
     }
 
-    private String extrairToken(WebSocketSession session) {
+    private String extrairParametro(WebSocketSession session, String nome) {
         try {
             URI uri = session.getUri();
             if (uri == null || uri.getQuery() == null) return null;
 
+            String prefixo = nome + "=";
             return Arrays.stream(uri.getQuery().split("&"))
-                    .filter(q -> q.startsWith("token="))
-                    .map(q -> q.substring("token=".length()))
+                    .filter(q -> q.startsWith(prefixo))
+                    .map(q -> q.substring(prefixo.length()))
                     .findFirst()
                     .orElse(null);
         } catch (Exception e) {
-            log.error("Erro ao extrair token da URL", e);
+            log.error("Erro ao extrair {} da URL", nome, e);
             return null;
         }
     }
@@ -0,0 +1,133 @@
+package com.messenger.chat.websocket;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * Registro das sessões WebSocket abertas neste nó.
+ * <p>
+ * Cada usuário é mapeado para um array compacto de sessões (copy-on-write), evitando o custo de um
+ * {@code Set} concorrente por usuário. Inclusão e remoção são feitas dentro de {@code compute}, de forma
+ * que a detecção de primeira/última sessão é atômica em relação a conexões concorrentes do mesmo usuário.
+ */
+@Slf4j
+@Component
+public class SessionRegistry {
+
+    private static final WebSocketSession[] VAZIO = new WebSocketSession[0];
+
+    private final ConcurrentHashMap<String, WebSocketSession[]> sessions = new ConcurrentHashMap<>();
+    private final AtomicInteger totalSessoes = new AtomicInteger();
+
+    /**
+     * Registra a sessão para o usuário.
+     *
+     * @return true se esta for a primeira sessão do usuário neste nó
+     */
+    public boolean adicionar(String email, WebSocketSession session) {
+        boolean[] primeira = new boolean[1];
+        boolean[] adicionada = new boolean[1];
+
+        sessions.compute(email, (k, atuais) -> {
+            if (atuais == null) {
+                primeira[0] = true;
+                adicionada[0] = true;
+                return new WebSocketSession[]{session};
+            }
+            if (indiceDe(atuais, session) >= 0) {
+                return atuais;
+            }
+            WebSocketSession[] novas = Arrays.copyOf(atuais, atuais.length + 1);
+            novas[atuais.length] = session;
+            adicionada[0] = true;
+            return novas;
+        });
+
+        if (adicionada[0]) {
+            totalSessoes.incrementAndGet();
+        }
+        return primeira[0];
+    }
+
+    /**
+     * Remove a sessão do usuário.
+     *
+     * @return o resultado da remoção, indicando se a sessão existia e se era a última do usuário
+     */
+    public Remocao remover(String email, WebSocketSession session) {
+        boolean[] removida = new boolean[1];
+        boolean[] ultima = new boolean[1];
+
+        sessions.computeIfPresent(email, (k, atuais) -> {
+            int indice = indiceDe(atuais, session);
+            if (indice < 0) {
+                return atuais;
+            }
+            removida[0] = true;
+            if (atuais.length == 1) {
+                ultima[0] = true;
+                return null;
+            }
+            WebSocketSession[] novas = new WebSocketSession[atuais.length - 1];
+            System.arraycopy(atuais, 0, novas, 0, indice);
+            System.arraycopy(atuais, indice + 1, novas, indice, atuais.length - indice - 1);
+            return novas;
+        });
+
+        if (!removida[0]) {
+            return Remocao.NAO_ENCONTRADA;
+        }
+        totalSessoes.decrementAndGet();
+        return ultima[0] ? Remocao.ULTIMA : Remocao.REMOVIDA;
+    }
+
+    /**
+     * Retorna uma visão imutável das sessões do usuário neste nó.
+     */
+    public List<WebSocketSession> getSessions(String email) {
+        WebSocketSession[] atuais = sessions.getOrDefault(email, VAZIO);
+        return atuais.length == 0 ? Collections.emptyList() : Collections.unmodifiableList(Arrays.asList(atuais));
+    }
+
+    /**
+     * Percorre todas as sessões abertas neste nó (usado para drenagem e métricas).
+     */
+    public void forEach(BiConsumer<String, WebSocketSession> consumer) {
+        sessions.forEach((email, atuais) -> {
+            for (WebSocketSession session : atuais) {
+                consumer.accept(email, session);
+            }
+        });
+    }
+
+    public int totalUsuarios() {
+        return sessions.size();
+    }
+
+    public int totalSessoes() {
+        return totalSessoes.get();
+    }
+
+    private static int indiceDe(WebSocketSession[] sessoes, WebSocketSession session) {
+        for (int i = 0; i < sessoes.length; i++) {
+            if (sessoes[i] == session) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public enum Remocao {
+        NAO_ENCONTRADA,
+        REMOVIDA,
+        ULTIMA
+    }
+}
@@ -0,0 +1,273 @@
+package com.messenger.chat.websocket;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Mantém, por uma janela curta, o estado de usuários cuja última sessão caiu de forma anormal.
+ * <p>
+ * Enquanto a sessão está suspensa o usuário continua online (sem notificação de presença para os contatos)
+ * e as mensagens recebidas neste nó são guardadas em memória. Se o cliente reconectar dentro da janela
+ * apresentando o token de retomada, recebe apenas essas mensagens; caso contrário, a desconexão é
+ * concluída normalmente quando a janela expira. Mensagens que não cabem no buffer seguem para a fila
+ * offline, e a retomada informa quando isso aconteceu para que a fila seja consultada.
+ */
+@Slf4j
+@Component
+public class SessionResumeManager {
+
+    private final Duration janela;
+    private final int maxMensagens;
+    private final Executor taskExecutor;
+
+    private final ConcurrentHashMap<String, SessaoSuspensa> suspensas = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService agendador = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("resume-expiracao").daemon().factory());
+    private final SecureRandom random = new SecureRandom();
+
+    public SessionResumeManager(@Value("${chat.resume.janela}") Duration janela,
+                                @Value("${chat.resume.max-mensagens}") int maxMensagens,
+                                Executor taskExecutor) {
+        this.janela = janela;
+        this.maxMensagens = maxMensagens;
+        this.taskExecutor = taskExecutor;
+    }
+
+    public String emitirToken() {
+        byte[] bytes = new byte[16];
+        random.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * Suspende o usuário até a expiração da janela.
+     *
+     * @param aoExpirar chamado com as mensagens guardadas se o usuário não retomar a sessão a tempo
+     */
+    public void suspender(String email, String token, Consumer<List<String>> aoExpirar) {
+        SessaoSuspensa sessao = new SessaoSuspensa(token, aoExpirar);
+
+        SessaoSuspensa anterior = suspensas.put(email, sessao);
+        if (anterior != null && anterior.tomar()) {
+            anterior.cancelarExpiracao();
+            sessao.absorver(anterior.encerrar(false));
+        }
+
+        // Agendado só depois do put: com janelas curtas a expiração não pode rodar antes da sessão estar no mapa
+        try {
+            sessao.expiracao = agendador.schedule(() -> expirar(email, sessao, taskExecutor),
+                    janela.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Nó desligando: não há mais janela para retomar
+            expirar(email, sessao, Runnable::run);
+        }
+    }
+
+    /**
+     * Retoma a sessão suspensa do usuário se o token conferir. As mensagens guardadas são passadas a
+     * {@code reenviar} em lotes, na ordem de chegada; enquanto isso a suspensão continua registrada e o que
+     * chega do Redis entra no próximo lote, de modo que nenhuma entrega ao vivo passa à frente do reenvio.
+     *
+     * @return o estado entregue na retomada, ou null se não houver sessão a retomar
+     */
+    public Retomada retomar(String email, String token, Consumer<List<String>> reenviar) {
+        SessaoSuspensa sessao = suspensas.get(email);
+        if (sessao == null || !sessao.tokenConfere(token)) {
+            return null;
+        }
+        return concluirRetomada(email, sessao, reenviar);
+    }
+
+    /**
+     * Encerra a suspensão do usuário independente do token (reconexão pelo fluxo completo), reenviando o
+     * buffer da mesma forma que {@link #retomar}.
+     *
+     * @return o estado guardado durante a suspensão, ou null se o usuário não estava suspenso
+     */
+    public Retomada reivindicar(String email, Consumer<List<String>> reenviar) {
+        SessaoSuspensa sessao = suspensas.get(email);
+        if (sessao == null) {
+            return null;
+        }
+        return concluirRetomada(email, sessao, reenviar);
+    }
+
+    private Retomada concluirRetomada(String email, SessaoSuspensa sessao, Consumer<List<String>> reenviar) {
+        if (!sessao.tomar()) {
+            // A janela expirou (ou outra conexão retomou) entre a consulta e agora
+            return null;
+        }
+        sessao.cancelarExpiracao();
+        try {
+            return sessao.drenar(reenviar);
+        } finally {
+            suspensas.remove(email, sessao);
+        }
+    }
+
+    /**
+     * Guarda a mensagem se o usuário estiver suspenso. Com o buffer cheio, ou se a janela acabou de expirar,
+     * a mensagem é entregue a {@code persistirOffline}.
+     *
+     * @return false se o usuário não está suspenso (ou a retomada já terminou de reenviar o buffer)
+     */
+    public boolean bufferizar(String email, String corpo, Function<String, CompletableFuture<Void>> persistirOffline) {
+        SessaoSuspensa sessao = suspensas.get(email);
+        return sessao != null && sessao.adicionar(corpo, persistirOffline);
+    }
+
+    public int totalSuspensas() {
+        return suspensas.size();
+    }
+
+    /**
+     * Conclui as suspensões pendentes antes de parar o agendador. Sem isso, quem estava suspenso continuaria
+     * marcado como online até o TTL da chave no Redis, e as mensagens enviadas nesse intervalo não iriam
+     * para a fila offline.
+     */
+    @PreDestroy
+    public void encerrar() {
+        suspensas.forEach((email, sessao) -> {
+            sessao.cancelarExpiracao();
+            expirar(email, sessao, Runnable::run);
+        });
+        agendador.shutdownNow();
+    }
+
+    private void expirar(String email, SessaoSuspensa sessao, Executor executor) {
+        if (!sessao.tomar()) {
+            return;
+        }
+        List<String> pendentes = sessao.encerrar(true).mensagens();
+        suspensas.remove(email, sessao);
+        log.info("⌛ Janela de retomada expirada para {}, {} mensagens pendentes", email, pendentes.size());
+        executor.execute(() -> sessao.aoExpirar.accept(pendentes));
+    }
+
+    /**
+     * Estado entregue na retomada.
+     *
+     * @param mensagens           mensagens guardadas no buffer (já reenviadas, no caso da retomada), na ordem de chegada
+     * @param persistenciaOffline conclui quando as mensagens que excederam o buffer estiverem na fila offline,
+     *                            ou null se nenhuma mensagem foi para a fila offline durante a suspensão
+     */
+    public record Retomada(List<String> mensagens, CompletableFuture<Void> persistenciaOffline) {
+    }
+
+    private class SessaoSuspensa {
+
+        private final byte[] token;
+        private final Consumer<List<String>> aoExpirar;
+        private final List<String> mensagens = new ArrayList<>();
+        private final List<CompletableFuture<Void>> persistencias = new ArrayList<>();
+        private volatile ScheduledFuture<?> expiracao;
+        private boolean tomada;
+        private boolean encerrada;
+        private boolean expirada;
+
+        SessaoSuspensa(String token, Consumer<List<String>> aoExpirar) {
+            this.token = token.getBytes(StandardCharsets.UTF_8);
+            this.aoExpirar = aoExpirar;
+        }
+
+        boolean tokenConfere(String outro) {
+            return MessageDigest.isEqual(token, outro.getBytes(StandardCharsets.UTF_8));
+        }
+
+        synchronized boolean adicionar(String corpo, Function<String, CompletableFuture<Void>> persistirOffline) {
+            if (encerrada) {
+                if (!expirada) {
+                    return false;
+                }
+                persistirOffline.apply(corpo);
+                return true;
+            }
+            if (mensagens.size() >= maxMensagens) {
+                persistencias.add(persistirOffline.apply(corpo));
+                return true;
+            }
+            mensagens.add(corpo);
+            return true;
+        }
+
+        /**
+         * Marca a sessão como tomada por quem vai concluí-la: retomada, reconexão completa ou expiração.
+         * Só o primeiro consegue.
+         */
+        synchronized boolean tomar() {
+            if (tomada) {
+                return false;
+            }
+            tomada = true;
+            return true;
+        }
+
+        synchronized void absorver(Retomada anterior) {
+            // Mensagens da suspensão anterior são mais antigas do que as que já chegaram nesta
+            mensagens.addAll(0, anterior.mensagens());
+            if (anterior.persistenciaOffline() != null) {
+                persistencias.add(anterior.persistenciaOffline());
+            }
+        }
+
+        /**
+         * Entrega o buffer em lotes até esvaziá-lo. O envio acontece fora do lock para não bloquear o
+         * subscriber do Redis; o que chegar nesse meio tempo é guardado e sai no lote seguinte.
+         */
+        Retomada drenar(Consumer<List<String>> reenviar) {
+            List<String> entregues = new ArrayList<>();
+            while (true) {
+                List<String> lote;
+                synchronized (this) {
+                    if (mensagens.isEmpty()) {
+                        encerrada = true;
+                        return new Retomada(entregues, persistencia());
+                    }
+                    lote = List.copyOf(mensagens);
+                    mensagens.clear();
+                }
+                reenviar.accept(lote);
+                entregues.addAll(lote);
+            }
+        }
+
+        synchronized Retomada encerrar(boolean porExpiracao) {
+            encerrada = true;
+            expirada = porExpiracao;
+            return new Retomada(List.copyOf(mensagens), persistencia());
+        }
+
+        private CompletableFuture<Void> persistencia() {
+            return persistencias.isEmpty()
+                    ? null
+                    : CompletableFuture.allOf(persistencias.toArray(CompletableFuture[]::new));
+        }
+
+        void cancelarExpiracao() {
+            ScheduledFuture<?> agendada = expiracao;
+            if (agendada != null) {
+                agendada.cancel(false);
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.messenger.chat.storage;
+
+import com.messenger.chat.model.Contato;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Contrato de {@link ContactStore}, executado contra cada engine pelas subclasses.
+ */
+public abstract class ContactStoreContractTest {
+
+    protected static final String ANA = "ana@example.com";
+    protected static final String BIA = "bia@example.com";
+    protected static final String CAIO = "caio@example.com";
+
+    protected ContactStore store;
+
+    protected abstract ContactStore criarStore();
+
+    @BeforeEach
+    void prepararStore() {
+        store = criarStore();
+    }
+
+    @Test
+    void usuarioSemContatos() {
+        assertTrue(store.listarContatos("ninguem@example.com").isEmpty());
+        assertEquals(Optional.empty(), store.buscarContato("ninguem@example.com", ANA));
+    }
+
+    @Test
+    void buscarContatoInexistenteDeUsuarioExistente() {
+        store.salvarContato(new Contato(ANA, BIA, true, false));
+
+        assertEquals(Optional.empty(), store.buscarContato(ANA, CAIO));
+    }
+
+    @Test
+    void salvarEBuscarContato() {
+        store.salvarContato(new Contato(ANA, BIA, true, false));
+        store.salvarContato(new Contato(ANA, CAIO, false, true));
+
+        assertEquals(Optional.of(new Contato(ANA, BIA, true, false)), store.buscarContato(ANA, BIA));
+        assertEquals(Optional.of(new Contato(ANA, CAIO, false, true)), store.buscarContato(ANA, CAIO));
+        assertEquals(List.of(BIA, CAIO), store.listarContatos(ANA).stream().sorted().toList());
+    }
+
+    @Test
+    void relacaoNaoEReciprocaAutomaticamente() {
+        store.salvarContato(new Contato(ANA, BIA, true, false));
+
+        assertTrue(store.listarContatos(BIA).isEmpty());
+        assertEquals(Optional.empty(), store.buscarContato(BIA, ANA));
+    }
+
+    @Test
+    void salvarContatoExistenteSubstituiARelacao() {
+        store.salvarContato(new Contato(ANA, BIA, true, false));
+        store.salvarContato(new Contato(ANA, BIA, true, true));
+
+        assertEquals(Optional.of(new Contato(ANA, BIA, true, true)), store.buscarContato(ANA, BIA));
+        assertEquals(List.of(BIA), store.listarContatos(ANA));
+    }
+}
@@ -0,0 +1,78 @@
+package com.messenger.chat.storage;
+
+import com.messenger.chat.model.ChatMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Contrato de {@link OfflineMessageStore}, executado contra cada engine pelas subclasses.
+ */
+public abstract class OfflineMessageStoreContractTest {
+
+    protected static final String ANA = "ana@example.com";
+    protected static final String BIA = "bia@example.com";
+
+    protected OfflineMessageStore store;
+
+    protected abstract OfflineMessageStore criarStore();
+
+    @BeforeEach
+    void prepararStore() {
+        store = criarStore();
+    }
+
+    @Test
+    void buscarPendentesDeUsuarioSemMensagensDevolveListaVazia() {
+        assertTrue(store.buscarPendentes("ninguem@example.com").isEmpty());
+    }
+
+    @Test
+    void buscarPendentesPreservaAOrdemDeChegada() {
+        for (int i = 1; i <= 5; i++) {
+            store.salvar(mensagem(ANA, "m" + i));
+        }
+
+        assertEquals(List.of("m1", "m2", "m3", "m4", "m5"), conteudos(store.buscarPendentes(ANA)));
+    }
+
+    @Test
+    void mensagensSaoSeparadasPorDestinatario() {
+        store.salvar(mensagem(ANA, "para ana"));
+        store.salvar(mensagem(BIA, "para bia"));
+
+        List<ChatMessage> pendentes = store.buscarPendentes(ANA);
+
+        assertEquals(List.of("para ana"), conteudos(pendentes));
+        assertEquals(ANA, pendentes.get(0).getTo());
+        assertEquals(BIA, pendentes.get(0).getFrom());
+    }
+
+    @Test
+    void removerEsvaziaAFilaDoUsuario() {
+        store.salvar(mensagem(ANA, "m1"));
+        store.salvar(mensagem(ANA, "m2"));
+        store.salvar(mensagem(BIA, "m3"));
+
+        store.remover(ANA);
+
+        assertTrue(store.buscarPendentes(ANA).isEmpty());
+        assertEquals(List.of("m3"), conteudos(store.buscarPendentes(BIA)));
+    }
+
+    @Test
+    void removerUsuarioSemMensagensNaoFalha() {
+        assertDoesNotThrow(() -> store.remover("ninguem@example.com"));
+    }
+
+    protected static ChatMessage mensagem(String para, String conteudo) {
+        return new ChatMessage(para, para.equals(ANA) ? BIA : ANA, conteudo);
+    }
+
+    protected static List<String> conteudos(List<ChatMessage> mensagens) {
+        return mensagens.stream().map(ChatMessage::getConteudo).toList();
+    }
+}
@@ -0,0 +1,27 @@
+package com.messenger.chat.storage.dynamodb;
+
+import com.messenger.chat.storage.ContactStore;
+import com.messenger.chat.storage.ContactStoreContractTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+
+@EnabledIfSystemProperty(named = DynamoDbTestTables.PROPRIEDADE_ENDPOINT, matches = ".+")
+class DynamoDbContactStoreTest extends ContactStoreContractTest {
+
+    private DynamoDbClient dynamoDb;
+    private String tabela;
+
+    @Override
+    protected ContactStore criarStore() {
+        dynamoDb = DynamoDbTestTables.cliente();
+        tabela = DynamoDbTestTables.criar(dynamoDb, "contatos", "usuario_email", "contato_email");
+        return new DynamoDbContactStore(dynamoDb, tabela);
+    }
+
+    @AfterEach
+    void removerTabela() {
+        DynamoDbTestTables.remover(dynamoDb, tabela);
+        dynamoDb.close();
+    }
+}
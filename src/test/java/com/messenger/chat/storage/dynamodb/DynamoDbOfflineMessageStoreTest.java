@@ -0,0 +1,27 @@
+package com.messenger.chat.storage.dynamodb;
+
+import com.messenger.chat.storage.OfflineMessageStore;
+import com.messenger.chat.storage.OfflineMessageStoreContractTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+
+@EnabledIfSystemProperty(named = DynamoDbTestTables.PROPRIEDADE_ENDPOINT, matches = ".+")
+class DynamoDbOfflineMessageStoreTest extends OfflineMessageStoreContractTest {
+
+    private DynamoDbClient dynamoDb;
+    private String tabela;
+
+    @Override
+    protected OfflineMessageStore criarStore() {
+        dynamoDb = DynamoDbTestTables.cliente();
+        tabela = DynamoDbTestTables.criar(dynamoDb, "mensagens_pendentes", "destinatario_email", "timestamp");
+        return new DynamoDbOfflineMessageStore(dynamoDb, tabela);
+    }
+
+    @AfterEach
+    void removerTabela() {
+        DynamoDbTestTables.remover(dynamoDb, tabela);
+        dynamoDb.close();
+    }
+}
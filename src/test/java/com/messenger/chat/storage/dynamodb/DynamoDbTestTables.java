@@ -0,0 +1,50 @@
+package com.messenger.chat.storage.dynamodb;
+
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.*;
+
+import java.net.URI;
+import java.util.UUID;
+
+/**
+ * Tabelas descartáveis no DynamoDB local ({@code docker compose up localstack}). Os testes que usam esta
+ * classe só rodam com {@code -Dchat.test.dynamodb-endpoint=http://127.0.0.1:4566}.
+ */
+final class DynamoDbTestTables {
+
+    static final String PROPRIEDADE_ENDPOINT = "chat.test.dynamodb-endpoint";
+
+    private DynamoDbTestTables() {
+    }
+
+    static DynamoDbClient cliente() {
+        return DynamoDbClient.builder()
+                .endpointOverride(URI.create(System.getProperty(PROPRIEDADE_ENDPOINT)))
+                .region(Region.US_EAST_1)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("test", "test")))
+                .build();
+    }
+
+    static String criar(DynamoDbClient dynamoDb, String prefixo, String hashKey, String rangeKey) {
+        String tabela = prefixo + "_" + UUID.randomUUID().toString().replace("-", "");
+        dynamoDb.createTable(CreateTableRequest.builder()
+                .tableName(tabela)
+                .billingMode(BillingMode.PAY_PER_REQUEST)
+                .attributeDefinitions(
+                        AttributeDefinition.builder().attributeName(hashKey).attributeType(ScalarAttributeType.S).build(),
+                        AttributeDefinition.builder().attributeName(rangeKey).attributeType(ScalarAttributeType.S).build())
+                .keySchema(
+                        KeySchemaElement.builder().attributeName(hashKey).keyType(KeyType.HASH).build(),
+                        KeySchemaElement.builder().attributeName(rangeKey).keyType(KeyType.RANGE).build())
+                .build());
+        dynamoDb.waiter().waitUntilTableExists(r -> r.tableName(tabela));
+        return tabela;
+    }
+
+    static void remover(DynamoDbClient dynamoDb, String tabela) {
+        dynamoDb.deleteTable(r -> r.tableName(tabela));
+    }
+}
@@ -0,0 +1,28 @@
+package com.messenger.chat.storage.memory;
+
+import com.messenger.chat.model.Contato;
+import com.messenger.chat.storage.ContactStore;
+import com.messenger.chat.storage.ContactStoreContractTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class InMemoryContactStoreTest extends ContactStoreContractTest {
+
+    @Override
+    protected ContactStore criarStore() {
+        return new InMemoryContactStore(4);
+    }
+
+    @Test
+    void alterarOContatoDepoisDeSalvarNaoMudaOStore() {
+        Contato contato = new Contato(ANA, BIA, true, false);
+        store.salvarContato(contato);
+
+        contato.setBloqueado(true);
+
+        assertEquals(Optional.of(new Contato(ANA, BIA, true, false)), store.buscarContato(ANA, BIA));
+    }
+}
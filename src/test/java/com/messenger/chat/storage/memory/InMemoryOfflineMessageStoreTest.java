@@ -0,0 +1,27 @@
+package com.messenger.chat.storage.memory;
+
+import com.messenger.chat.storage.OfflineMessageStore;
+import com.messenger.chat.storage.OfflineMessageStoreContractTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class InMemoryOfflineMessageStoreTest extends OfflineMessageStoreContractTest {
+
+    @Override
+    protected OfflineMessageStore criarStore() {
+        return new InMemoryOfflineMessageStore(4, 100);
+    }
+
+    @Test
+    void filaCheiaDescartaAsMaisAntigas() {
+        OfflineMessageStore pequena = new InMemoryOfflineMessageStore(4, 3);
+        for (int i = 1; i <= 5; i++) {
+            pequena.salvar(mensagem(ANA, "m" + i));
+        }
+
+        assertEquals(List.of("m3", "m4", "m5"), conteudos(pequena.buscarPendentes(ANA)));
+    }
+}
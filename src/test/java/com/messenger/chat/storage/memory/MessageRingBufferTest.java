@@ -0,0 +1,67 @@
+package com.messenger.chat.storage.memory;
+
+import com.messenger.chat.model.ChatMessage;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MessageRingBufferTest {
+
+    @Test
+    void mantemOrdemAteEncher() {
+        MessageRingBuffer buffer = new MessageRingBuffer(3);
+
+        assertFalse(buffer.adicionar(mensagem("m1")));
+        assertFalse(buffer.adicionar(mensagem("m2")));
+        assertFalse(buffer.adicionar(mensagem("m3")));
+
+        assertEquals(List.of("m1", "m2", "m3"), conteudos(buffer));
+    }
+
+    @Test
+    void cheioSobrescreveAMaisAntiga() {
+        MessageRingBuffer buffer = new MessageRingBuffer(3);
+        for (int i = 1; i <= 3; i++) {
+            buffer.adicionar(mensagem("m" + i));
+        }
+
+        assertTrue(buffer.adicionar(mensagem("m4")));
+
+        assertEquals(List.of("m2", "m3", "m4"), conteudos(buffer));
+    }
+
+    @Test
+    void continuaEmOrdemDepoisDeVariasVoltas() {
+        MessageRingBuffer buffer = new MessageRingBuffer(3);
+        for (int i = 1; i <= 11; i++) {
+            buffer.adicionar(mensagem("m" + i));
+        }
+
+        assertEquals(List.of("m9", "m10", "m11"), conteudos(buffer));
+    }
+
+    @Test
+    void capacidadeUm() {
+        MessageRingBuffer buffer = new MessageRingBuffer(1);
+
+        assertFalse(buffer.adicionar(mensagem("m1")));
+        assertTrue(buffer.adicionar(mensagem("m2")));
+
+        assertEquals(List.of("m2"), conteudos(buffer));
+    }
+
+    @Test
+    void vazioCopiaListaVazia() {
+        assertTrue(new MessageRingBuffer(3).copiar().isEmpty());
+    }
+
+    private static ChatMessage mensagem(String conteudo) {
+        return new ChatMessage("ana@example.com", "bia@example.com", conteudo);
+    }
+
+    private static List<String> conteudos(MessageRingBuffer buffer) {
+        return buffer.copiar().stream().map(ChatMessage::getConteudo).toList();
+    }
+}
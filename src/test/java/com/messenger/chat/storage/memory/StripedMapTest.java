@@ -0,0 +1,68 @@
+package com.messenger.chat.storage.memory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StripedMapTest {
+
+    @Test
+    void quantidadeDeFaixasArredondaParaPotenciaDeDois() {
+        assertEquals(1, new StripedMap<String>(0).quantidadeFaixas());
+        assertEquals(1, new StripedMap<String>(1).quantidadeFaixas());
+        assertEquals(2, new StripedMap<String>(2).quantidadeFaixas());
+        assertEquals(4, new StripedMap<String>(3).quantidadeFaixas());
+        assertEquals(64, new StripedMap<String>(64).quantidadeFaixas());
+        assertEquals(128, new StripedMap<String>(65).quantidadeFaixas());
+    }
+
+    @Test
+    void alterarCriaOValorUmaVezELerDevolveNullParaChaveAusente() {
+        StripedMap<List<String>> mapa = new StripedMap<>(4);
+
+        mapa.alterar("ana", ArrayList::new, lista -> lista.add("m1"));
+        mapa.alterar("ana", ArrayList::new, lista -> lista.add("m2"));
+
+        assertEquals(List.of("m1", "m2"), mapa.ler("ana", List::copyOf));
+        assertNull(mapa.ler("bia", lista -> lista));
+    }
+
+    @Test
+    void removerDevolveOValorEApagaAChave() {
+        StripedMap<List<String>> mapa = new StripedMap<>(4);
+        mapa.alterar("ana", ArrayList::new, lista -> lista.add("m1"));
+
+        assertEquals(List.of("m1"), mapa.remover("ana"));
+        assertNull(mapa.ler("ana", lista -> lista));
+        assertNull(mapa.remover("ana"));
+    }
+
+    @Test
+    void alteracoesConcorrentesNaMesmaChaveNaoSePerdem() throws Exception {
+        StripedMap<List<Integer>> mapa = new StripedMap<>(2);
+        int tarefas = 8;
+        int porTarefa = 1_000;
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(tarefas)) {
+            List<Future<?>> futuros = new ArrayList<>();
+            for (int t = 0; t < tarefas; t++) {
+                futuros.add(executor.submit(() -> {
+                    for (int i = 0; i < porTarefa; i++) {
+                        mapa.alterar("ana", ArrayList::new, lista -> lista.add(1));
+                    }
+                }));
+            }
+            for (Future<?> futuro : futuros) {
+                futuro.get();
+            }
+        }
+
+        assertEquals(tarefas * porTarefa, mapa.ler("ana", List::size));
+    }
+}
@@ -0,0 +1,65 @@
+package com.messenger.chat.tracing;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeliveryTraceTest {
+
+    private static final String CORPO = "{\"to\":\"ana@example.com\",\"from\":\"bia@example.com\",\"conteudo\":\"oi\"}";
+
+    @Test
+    void cabecalhoFazIdaEVoltaComTodasAsEtapas() {
+        DeliveryTrace trace = DeliveryTrace.iniciar();
+        for (DeliveryStage etapa : DeliveryStage.values()) {
+            trace.marcar(etapa);
+        }
+
+        String comCabecalho = trace.anexarCabecalho(CORPO);
+        DeliveryTrace lido = DeliveryTrace.decodificar(comCabecalho);
+
+        assertNotNull(lido);
+        assertEquals(trace.getId(), lido.getId());
+        for (DeliveryStage etapa : DeliveryStage.values()) {
+            assertTrue(trace.getTimestamp(etapa) > 0);
+            assertEquals(trace.getTimestamp(etapa), lido.getTimestamp(etapa), etapa.name());
+        }
+        assertEquals(CORPO, DeliveryTrace.removerCabecalho(comCabecalho));
+    }
+
+    @Test
+    void etapasNaoMarcadasViajamComoZero() {
+        DeliveryTrace trace = DeliveryTrace.iniciar();
+        trace.marcar(DeliveryStage.VALIDADA);
+
+        DeliveryTrace lido = DeliveryTrace.decodificar(trace.anexarCabecalho(CORPO));
+
+        assertNotNull(lido);
+        assertEquals(trace.getTimestamp(DeliveryStage.RECEBIDA), lido.getTimestamp(DeliveryStage.RECEBIDA));
+        assertEquals(0, lido.getTimestamp(DeliveryStage.PUBLICADA));
+        assertEquals(0, lido.getTimestamp(DeliveryStage.ENVIADA));
+    }
+
+    @Test
+    void mensagemSemCabecalhoNaoTemTrace() {
+        assertNull(DeliveryTrace.decodificar(CORPO));
+        assertNull(DeliveryTrace.decodificar(""));
+        assertNull(DeliveryTrace.decodificar("#hashtag no início da mensagem"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "#trace;abc;1;2;3;4;5;6",
+            "#trace;abc;1;2;3\n",
+            "#trace;abc;1;2;3;4;5;6;7\n",
+            "#trace;abc;1;2;x;4;5;6\n",
+            "#trace;abc;1;2;;4;5;6\n",
+            "#trace;abc;1;2;3;4;5;99999999999999999999\n",
+            "#trace;abc;1;2;3;4;5; 6\n"
+    })
+    void cabecalhoMalformadoEIgnorado(String cabecalho) {
+        assertNull(DeliveryTrace.decodificar(cabecalho + CORPO));
+    }
+}
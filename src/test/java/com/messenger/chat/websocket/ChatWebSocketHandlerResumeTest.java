@@ -0,0 +1,307 @@
+package com.messenger.chat.websocket;
+
+import com.messenger.chat.infra.auth.TokenUtils;
+import com.messenger.chat.infra.validator.ContatoValidator;
+import com.messenger.chat.redis.RedisPublisher;
+import com.messenger.chat.redis.UserSessionManager;
+import com.messenger.chat.services.ContatosService;
+import com.messenger.chat.services.MessageService;
+import com.messenger.chat.tracing.DeliveryTracer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketMessage;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ChatWebSocketHandlerResumeTest {
+
+    private static final String EMAIL = "ana@example.com";
+    private static final String MENSAGEM = "{\"to\":\"ana@example.com\",\"from\":\"bia@example.com\",\"conteudo\":\"oi\"}";
+    private static final String MENSAGEM_AO_VIVO = "{\"to\":\"ana@example.com\",\"from\":\"bia@example.com\",\"conteudo\":\"tudo bem?\"}";
+    private static final CloseStatus QUEDA = new CloseStatus(1006);
+
+    @Mock
+    private RedisPublisher redisPublisher;
+    @Mock
+    private TokenUtils tokenUtils;
+    @Mock
+    private ContatoValidator contatoValidator;
+    @Mock
+    private MessageService messageService;
+    @Mock
+    private UserSessionManager userSessionManager;
+    @Mock
+    private ContatosService contatosService;
+    @Mock
+    private DeliveryTracer deliveryTracer;
+
+    private final ExecutorManual executor = new ExecutorManual();
+    private SessionRegistry sessionRegistry;
+    private SessionResumeManager resumeManager;
+    private int sequencia;
+
+    @BeforeEach
+    void configurar() {
+        when(tokenUtils.getEmailFromToken(anyString())).thenReturn(EMAIL);
+        when(contatosService.listarContatos(anyString())).thenReturn(CompletableFuture.completedFuture(List.of()));
+        when(messageService.buscarMensagensOffline(anyString())).thenReturn(CompletableFuture.completedFuture(List.of()));
+        when(messageService.removerMensagensOffline(anyString())).thenReturn(CompletableFuture.completedFuture(null));
+        when(messageService.salvarMensagemOffline(any())).thenReturn(CompletableFuture.completedFuture(null));
+        sessionRegistry = new SessionRegistry();
+    }
+
+    @AfterEach
+    void encerrar() {
+        if (resumeManager != null) {
+            resumeManager.encerrar();
+        }
+    }
+
+    @Test
+    void duasSessoesIncrementamEDecrementamContadorUmaVez() throws Exception {
+        ChatWebSocketHandler handler = handler(Duration.ofMinutes(1), 10);
+        FakeWebSocketSession aba1 = conectar(handler, null);
+        FakeWebSocketSession aba2 = conectar(handler, null);
+
+        handler.afterConnectionClosed(aba1, CloseStatus.NORMAL);
+        handler.afterConnectionClosed(aba2, CloseStatus.NORMAL);
+        executor.executarPendentes();
+
+        verify(userSessionManager, times(1)).userConnected(EMAIL);
+        verify(userSessionManager, times(1)).userDisconnected(EMAIL);
+    }
+
+    @Test
+    void fechamentoNormalComMotivoNaoSuspende() throws Exception {
+        ChatWebSocketHandler handler = handler(Duration.ofMinutes(1), 10);
+        FakeWebSocketSession sessao = conectar(handler, null);
+
+        handler.afterConnectionClosed(sessao, CloseStatus.NORMAL.withReason("fim do teste"));
+        executor.executarPendentes();
+
+        assertEquals(0, resumeManager.totalSuspensas());
+        verify(userSessionManager).userDisconnected(EMAIL);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1001, 1012})
+    void fechamentoIntencionalNaoSuspende(int codigo) throws Exception {
+        ChatWebSocketHandler handler = handler(Duration.ofMinutes(1), 10);
+        FakeWebSocketSession sessao = conectar(handler, null);
+
+        handler.afterConnectionClosed(sessao, new CloseStatus(codigo));
+        executor.executarPendentes();
+
+        assertEquals(0, resumeManager.totalSuspensas());
+        assertFalse(handler.bufferizarSeSuspensa(EMAIL, MENSAGEM));
+        verify(userSessionManager).userDisconnected(EMAIL);
+    }
+
+    @Test
+    void erroDeTransporteSuspende() throws Exception {
+        ChatWebSocketHandler handler = handler(Duration.ofMinutes(1), 10);
+        FakeWebSocketSession sessao = conectar(handler, null);
+
+        handler.afterConnectionClosed(sessao, CloseStatus.SERVER_ERROR.withReason("Erro no transporte"));
+
+        assertEquals(1, resumeManager.totalSuspensas());
+        verify(userSessionManager, never()).userDisconnected(EMAIL);
+    }
+
+    @Test
+    void desligamentoDoNoConcluiDesconexaoDosSuspensos() throws Exception {
+        ChatWebSocketHandler handler = handler(Duration.ofMinutes(1), 10);
+        FakeWebSocketSession sessao = conectar(handler, null);
+        handler.afterConnectionClosed(sessao, QUEDA);
+        handler.bufferizarSeSuspensa(EMAIL, MENSAGEM);
+
+        resumeManager.encerrar();
+        executor.executarPendentes();
+
+        verify(userSessionManager).userDisconnected(EMAIL);
+        verify(messageService).salvarMensagemOffline(any());
+    }
+
+    @Test
+    void expiracaoComUsuarioOnlineEmOutroNoNaoDuplicaNemNotificaOffline() throws Exception {
+        String contato = "bia@example.com";
+        when(contatosService.listarContatos(EMAIL)).thenReturn(CompletableFuture.completedFuture(List.of(contato)));
+        when(userSessionManager.isUserOnline(anyString())).thenReturn(true);
+        ChatWebSocketHandler handler = handler(Duration.ofMinutes(1), 10);
+        FakeWebSocketSession sessao = conectar(handler, null);
+        executor.executarPendentes();
+
+        handler.afterConnectionClosed(sessao, QUEDA);
+        handler.bufferizarSeSuspensa(EMAIL, MENSAGEM);
+        // Outro nó incrementou o contador; a janela deste nó expira sem retomada
+        resumeManager.encerrar();
+        executor.executarPendentes();
+
+        verify(userSessionManager).userDisconnected(EMAIL);
+        verify(messageService, never()).salvarMensagemOffline(any());
+        verify(redisPublisher, never()).publish(eq("chat:" + contato), contains("offline"));
+    }
+
+    @Test
+    void retomadaReenviaBufferSemPresencaNemConsultaOffline() throws Exception {
+        ChatWebSocketHandler handler = handler(Duration.ofMinutes(1), 10);
+        FakeWebSocketSession anterior = conectar(handler, null);
+
+        handler.afterConnectionClosed(anterior, QUEDA);
+        assertTrue(handler.bufferizarSeSuspensa(EMAIL, MENSAGEM));
+
+        FakeWebSocketSession retomada = conectar(handler, tokenDe(anterior));
+        executor.executarPendentes();
+
+        assertTrue(retomada.getEnviadas().contains(MENSAGEM));
+        verify(userSessionManager, times(1)).userConnected(EMAIL);
+        verify(userSessionManager, never()).userDisconnected(EMAIL);
+        verify(contatosService, times(1)).listarContatos(EMAIL);
+        verify(messageService, times(1)).buscarMensagensOffline(EMAIL);
+    }
+
+    @Test
+    void mensagemQueChegaDuranteReenvioSaiDepoisDoBuffer() throws Exception {
+        ChatWebSocketHandler handler = handler(Duration.ofMinutes(1), 10);
+        FakeWebSocketSession anterior = conectar(handler, null);
+        handler.afterConnectionClosed(anterior, QUEDA);
+        handler.bufferizarSeSuspensa(EMAIL, MENSAGEM);
+
+        boolean[] guardadaDuranteReenvio = new boolean[1];
+        FakeWebSocketSession retomada = new FakeWebSocketSession("s" + (++sequencia),
+                URI.create("ws://localhost/chat?token=jwt&resume=" + tokenDe(anterior))) {
+            @Override
+            public void sendMessage(WebSocketMessage<?> message) {
+                super.sendMessage(message);
+                if (MENSAGEM.equals(message.getPayload())) {
+                    // O subscriber do Redis recebe uma mensagem nova enquanto o buffer é reenviado
+                    guardadaDuranteReenvio[0] = handler.bufferizarSeSuspensa(EMAIL, MENSAGEM_AO_VIVO);
+                }
+            }
+        };
+        handler.afterConnectionEstablished(retomada);
+
+        assertTrue(guardadaDuranteReenvio[0]);
+        List<String> enviadas = retomada.getEnviadas();
+        assertEquals(List.of(MENSAGEM, MENSAGEM_AO_VIVO), enviadas.subList(enviadas.size() - 2, enviadas.size()));
+        assertFalse(handler.bufferizarSeSuspensa(EMAIL, MENSAGEM_AO_VIVO));
+    }
+
+    @Test
+    void retomadaComTokenErradoSegueFluxoCompletoSemDuplicarContador() throws Exception {
+        ChatWebSocketHandler handler = handler(Duration.ofMinutes(1), 10);
+        FakeWebSocketSession anterior = conectar(handler, null);
+
+        handler.afterConnectionClosed(anterior, QUEDA);
+        handler.bufferizarSeSuspensa(EMAIL, MENSAGEM);
+
+        FakeWebSocketSession nova = conectar(handler, "token-invalido");
+        executor.executarPendentes();
+
+        assertTrue(nova.getEnviadas().contains(MENSAGEM));
+        assertEquals(0, resumeManager.totalSuspensas());
+        verify(userSessionManager, times(1)).userConnected(EMAIL);
+        verify(messageService, times(2)).buscarMensagensOffline(EMAIL);
+    }
+
+    @Test
+    void transbordamentoDoBufferConsultaFilaOfflineNaRetomada() throws Exception {
+        ChatWebSocketHandler handler = handler(Duration.ofMinutes(1), 1);
+        FakeWebSocketSession anterior = conectar(handler, null);
+
+        handler.afterConnectionClosed(anterior, QUEDA);
+        handler.bufferizarSeSuspensa(EMAIL, MENSAGEM);
+        handler.bufferizarSeSuspensa(EMAIL, MENSAGEM);
+        verify(messageService, times(1)).salvarMensagemOffline(any());
+
+        conectar(handler, tokenDe(anterior));
+        executor.executarPendentes();
+
+        verify(messageService, times(2)).buscarMensagensOffline(EMAIL);
+        verify(messageService, times(2)).removerMensagensOffline(EMAIL);
+    }
+
+    @Test
+    void expiracaoConcorrenteComReconexaoCompletaMantemContadorPareado() throws Exception {
+        ChatWebSocketHandler handler = handler(Duration.ofMillis(200), 10);
+        FakeWebSocketSession anterior = conectar(handler, null);
+
+        handler.afterConnectionClosed(anterior, QUEDA);
+        handler.bufferizarSeSuspensa(EMAIL, MENSAGEM);
+
+        // A expiração remove a suspensão, mas a conclusão da desconexão fica na fila do executor
+        long limite = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (resumeManager.totalSuspensas() > 0 && System.nanoTime() < limite) {
+            Thread.sleep(5);
+        }
+        assertEquals(0, resumeManager.totalSuspensas());
+
+        FakeWebSocketSession nova = conectar(handler, tokenDe(anterior));
+        executor.executarPendentes();
+
+        assertTrue(nova.getEnviadas().contains(MENSAGEM));
+        verify(userSessionManager, times(2)).userConnected(EMAIL);
+        verify(userSessionManager, times(1)).userDisconnected(EMAIL);
+    }
+
+    private ChatWebSocketHandler handler(Duration janela, int maxMensagens) {
+        resumeManager = new SessionResumeManager(janela, maxMensagens, executor);
+        return new ChatWebSocketHandler(redisPublisher, tokenUtils, contatoValidator, messageService,
+                userSessionManager, contatosService, executor, sessionRegistry, deliveryTracer, resumeManager);
+    }
+
+    private FakeWebSocketSession conectar(ChatWebSocketHandler handler, String resumeToken) throws Exception {
+        String query = "token=jwt" + (resumeToken != null ? "&resume=" + resumeToken : "");
+        FakeWebSocketSession sessao = new FakeWebSocketSession("s" + (++sequencia), URI.create("ws://localhost/chat?" + query));
+        handler.afterConnectionEstablished(sessao);
+        return sessao;
+    }
+
+    private static String tokenDe(FakeWebSocketSession sessao) {
+        return (String) sessao.getAttributes().get("resumeToken");
+    }
+
+    /**
+     * Executor que só roda as tarefas quando o teste pede, para controlar a ordem entre expiração e reconexão.
+     */
+    private static class ExecutorManual implements Executor {
+
+        private final Queue<Runnable> tarefas = new ConcurrentLinkedQueue<>();
+
+        @Override
+        public void execute(Runnable tarefa) {
+            tarefas.add(tarefa);
+        }
+
+        void executarPendentes() {
+            Runnable tarefa;
+            while ((tarefa = tarefas.poll()) != null) {
+                tarefa.run();
+            }
+        }
+    }
+}
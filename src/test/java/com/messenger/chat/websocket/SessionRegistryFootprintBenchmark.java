@@ -0,0 +1,74 @@
+package com.messenger.chat.websocket;
+
+import org.springframework.web.socket.WebSocketSession;
+
+import java.lang.ref.Reference;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Compara o heap retido pelo mapa antigo ({@code ConcurrentHashMap<String, Set<WebSocketSession>>} com um
+ * {@code newKeySet()} por usuário) e pelo {@link SessionRegistry} com 100k e 500k sessões.
+ * <p>
+ * As sessões são alocadas antes da medição, então o resultado contabiliza apenas a estrutura de registro
+ * (chaves, entradas e coleções por usuário). Um em cada cinco usuários tem duas sessões abertas.
+ * Executar com heap fixo para reduzir ruído, por exemplo:
+ * <pre>
+ * java -Xms2g -Xmx2g -cp target/test-classes:target/classes:... com.messenger.chat.websocket.SessionRegistryFootprintBenchmark
+ * </pre>
+ */
+public class SessionRegistryFootprintBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        for (int total : new int[]{100_000, 500_000}) {
+            WebSocketSession[] sessoes = new WebSocketSession[total];
+            String[] donos = new String[total];
+            for (int i = 0, usuario = 0; i < total; usuario++) {
+                int porUsuario = usuario % 5 == 0 ? 2 : 1;
+                for (int j = 0; j < porUsuario && i < total; j++, i++) {
+                    sessoes[i] = new FakeWebSocketSession(Integer.toString(i), null);
+                    donos[i] = "user-" + usuario + "@example.com";
+                }
+            }
+
+            long mapaAntigo = medir(() -> {
+                Map<String, Set<WebSocketSession>> mapa = new ConcurrentHashMap<>();
+                for (int i = 0; i < total; i++) {
+                    // nova String por conexão, como a extraída do JWT
+                    mapa.computeIfAbsent(new String(donos[i]), k -> ConcurrentHashMap.newKeySet()).add(sessoes[i]);
+                }
+                return mapa;
+            });
+
+            long registro = medir(() -> {
+                SessionRegistry sessionRegistry = new SessionRegistry();
+                for (int i = 0; i < total; i++) {
+                    sessionRegistry.adicionar(new String(donos[i]), sessoes[i]);
+                }
+                return sessionRegistry;
+            });
+
+            System.out.printf("%,d sessões: ConcurrentHashMap+newKeySet = %,d KB (%d B/sessão) | SessionRegistry = %,d KB (%d B/sessão)%n",
+                    total, mapaAntigo / 1024, mapaAntigo / total, registro / 1024, registro / total);
+        }
+    }
+
+    private static long medir(Supplier<Object> construir) throws InterruptedException {
+        long antes = heapUsado();
+        Object estrutura = construir.get();
+        long depois = heapUsado();
+        Reference.reachabilityFence(estrutura);
+        return depois - antes;
+    }
+
+    private static long heapUsado() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,204 @@
+package com.messenger.chat.websocket;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionResumeManagerTest {
+
+    private static final String EMAIL = "ana@example.com";
+
+    private final List<SessionResumeManager> managers = new ArrayList<>();
+    private final List<String> persistidas = new CopyOnWriteArrayList<>();
+    private final Function<String, CompletableFuture<Void>> persistir = corpo -> {
+        persistidas.add(corpo);
+        return CompletableFuture.completedFuture(null);
+    };
+    private final List<String> reenviadas = new ArrayList<>();
+    private final Consumer<List<String>> reenviar = reenviadas::addAll;
+
+    @AfterEach
+    void encerrar() {
+        managers.forEach(SessionResumeManager::encerrar);
+    }
+
+    @Test
+    void retomarComTokenCorretoDevolveMensagensGuardadas() {
+        SessionResumeManager manager = manager(Duration.ofMinutes(1), 10);
+        String token = manager.emitirToken();
+        manager.suspender(EMAIL, token, pendentes -> fail("não deveria expirar"));
+
+        assertTrue(manager.bufferizar(EMAIL, "m1", persistir));
+        assertTrue(manager.bufferizar(EMAIL, "m2", persistir));
+
+        SessionResumeManager.Retomada retomada = manager.retomar(EMAIL, token, reenviar);
+
+        assertNotNull(retomada);
+        assertEquals(List.of("m1", "m2"), retomada.mensagens());
+        assertEquals(List.of("m1", "m2"), reenviadas);
+        assertNull(retomada.persistenciaOffline());
+        assertEquals(0, manager.totalSuspensas());
+        assertFalse(manager.bufferizar(EMAIL, "m3", persistir));
+        assertTrue(persistidas.isEmpty());
+    }
+
+    @Test
+    void retomarComTokenErradoMantemSuspensao() {
+        SessionResumeManager manager = manager(Duration.ofMinutes(1), 10);
+        String token = manager.emitirToken();
+        manager.suspender(EMAIL, token, pendentes -> fail("não deveria expirar"));
+
+        assertNull(manager.retomar(EMAIL, manager.emitirToken(), reenviar));
+        assertEquals(1, manager.totalSuspensas());
+        assertTrue(manager.bufferizar(EMAIL, "m1", persistir));
+
+        SessionResumeManager.Retomada retomada = manager.retomar(EMAIL, token, reenviar);
+        assertNotNull(retomada);
+        assertEquals(List.of("m1"), retomada.mensagens());
+    }
+
+    @Test
+    void mensagensAlemDoLimiteVaoParaFilaOffline() {
+        SessionResumeManager manager = manager(Duration.ofMinutes(1), 2);
+        String token = manager.emitirToken();
+        manager.suspender(EMAIL, token, pendentes -> fail("não deveria expirar"));
+
+        assertTrue(manager.bufferizar(EMAIL, "m1", persistir));
+        assertTrue(manager.bufferizar(EMAIL, "m2", persistir));
+        assertTrue(manager.bufferizar(EMAIL, "m3", persistir));
+
+        SessionResumeManager.Retomada retomada = manager.retomar(EMAIL, token, reenviar);
+
+        assertEquals(List.of("m3"), persistidas);
+        assertEquals(List.of("m1", "m2"), retomada.mensagens());
+        assertNotNull(retomada.persistenciaOffline());
+        assertTrue(retomada.persistenciaOffline().isDone());
+    }
+
+    @Test
+    void janelaExpiradaEntregaPendentesParaDesconexao() throws Exception {
+        SessionResumeManager manager = manager(Duration.ofMillis(50), 10);
+        String token = manager.emitirToken();
+        CountDownLatch expirou = new CountDownLatch(1);
+        AtomicReference<List<String>> pendentesNaExpiracao = new AtomicReference<>();
+        manager.suspender(EMAIL, token, pendentes -> {
+            pendentesNaExpiracao.set(pendentes);
+            expirou.countDown();
+        });
+        manager.bufferizar(EMAIL, "m1", persistir);
+
+        assertTrue(expirou.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("m1"), pendentesNaExpiracao.get());
+        assertEquals(0, manager.totalSuspensas());
+        assertNull(manager.retomar(EMAIL, token, reenviar));
+        assertFalse(manager.bufferizar(EMAIL, "m2", persistir));
+    }
+
+    @Test
+    void janelaCurtaNaoDeixaSuspensaoPresa() throws Exception {
+        SessionResumeManager manager = manager(Duration.ZERO, 10);
+        CountDownLatch expirou = new CountDownLatch(1);
+        manager.suspender(EMAIL, manager.emitirToken(), pendentes -> expirou.countDown());
+
+        assertTrue(expirou.await(5, TimeUnit.SECONDS));
+        assertEquals(0, manager.totalSuspensas());
+    }
+
+    @Test
+    void reconexaoCompletaDentroDaJanelaCancelaExpiracao() throws Exception {
+        SessionResumeManager manager = manager(Duration.ofMillis(100), 10);
+        AtomicBoolean expirou = new AtomicBoolean();
+        manager.suspender(EMAIL, manager.emitirToken(), pendentes -> expirou.set(true));
+        manager.bufferizar(EMAIL, "m1", persistir);
+
+        SessionResumeManager.Retomada retomada = manager.reivindicar(EMAIL, reenviar);
+
+        assertNotNull(retomada);
+        assertEquals(List.of("m1"), retomada.mensagens());
+        Thread.sleep(300);
+        assertFalse(expirou.get());
+        assertNull(manager.reivindicar(EMAIL, reenviar));
+    }
+
+    @Test
+    void mensagensQueChegamDuranteOReenvioSaemDepoisDoBuffer() {
+        SessionResumeManager manager = manager(Duration.ofMinutes(1), 10);
+        String token = manager.emitirToken();
+        manager.suspender(EMAIL, token, pendentes -> fail("não deveria expirar"));
+        manager.bufferizar(EMAIL, "m1", persistir);
+        manager.bufferizar(EMAIL, "m2", persistir);
+
+        List<List<String>> lotes = new ArrayList<>();
+        SessionResumeManager.Retomada retomada = manager.retomar(EMAIL, token, lote -> {
+            if (lotes.isEmpty()) {
+                // Chega do Redis enquanto o primeiro lote está sendo enviado
+                assertTrue(manager.bufferizar(EMAIL, "m3", persistir));
+            }
+            lotes.add(lote);
+        });
+
+        assertEquals(List.of(List.of("m1", "m2"), List.of("m3")), lotes);
+        assertEquals(List.of("m1", "m2", "m3"), retomada.mensagens());
+        assertEquals(0, manager.totalSuspensas());
+        assertFalse(manager.bufferizar(EMAIL, "m4", persistir));
+    }
+
+    @Test
+    void expiracaoNaoConcorreComRetomadaEmAndamento() {
+        SessionResumeManager manager = manager(Duration.ofMinutes(1), 10);
+        String token = manager.emitirToken();
+        AtomicBoolean expirou = new AtomicBoolean();
+        manager.suspender(EMAIL, token, pendentes -> expirou.set(true));
+        manager.bufferizar(EMAIL, "m1", persistir);
+
+        // Desligamento do nó no meio do reenvio: a retomada já tomou a sessão
+        manager.retomar(EMAIL, token, lote -> manager.encerrar());
+
+        assertFalse(expirou.get());
+        assertEquals(0, manager.totalSuspensas());
+    }
+
+    @Test
+    void encerramentoDoNoConcluiSuspensoesPendentes() {
+        SessionResumeManager manager = manager(Duration.ofMinutes(1), 10);
+        AtomicReference<List<String>> pendentesNaExpiracao = new AtomicReference<>();
+        manager.suspender(EMAIL, manager.emitirToken(), pendentesNaExpiracao::set);
+        manager.bufferizar(EMAIL, "m1", persistir);
+
+        manager.encerrar();
+
+        assertEquals(List.of("m1"), pendentesNaExpiracao.get());
+        assertEquals(0, manager.totalSuspensas());
+    }
+
+    @Test
+    void suspensaoDepoisDoEncerramentoExpiraNaHora() {
+        SessionResumeManager manager = manager(Duration.ofMinutes(1), 10);
+        manager.encerrar();
+        AtomicBoolean expirou = new AtomicBoolean();
+
+        manager.suspender(EMAIL, manager.emitirToken(), pendentes -> expirou.set(true));
+
+        assertTrue(expirou.get());
+        assertEquals(0, manager.totalSuspensas());
+    }
+
+    private SessionResumeManager manager(Duration janela, int maxMensagens) {
+        SessionResumeManager manager = new SessionResumeManager(janela, maxMensagens, Runnable::run);
+        managers.add(manager);
+        return manager;
+    }
+}